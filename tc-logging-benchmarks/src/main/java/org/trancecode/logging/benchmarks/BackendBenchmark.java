@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.FileAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.PatternLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trancecode.logging.log4j.Log4jLoggerManager;
+import org.trancecode.logging.noop.NullLoggerManager;
+import org.trancecode.logging.simple.SimpleLoggerManager;
+import org.trancecode.logging.spi.LoggerLevel;
+import org.trancecode.logging.spi.LoggerManager;
+import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
+import org.trancecode.logging.spi.RenderingDelegateLogger;
+
+/**
+ * End-to-end throughput of enabled log calls for each backend, from 1 to 64
+ * logging threads.
+ * <p>
+ * Events are written to files: the simple backend writes to its default
+ * output directory and log4j to a buffered file appender. Console output is
+ * disabled.
+ * 
+ * @author Herve Quiroz
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Dlogging.level=INFO", "-Dlogging.console.level=FATAL" })
+@State(Scope.Benchmark)
+public class BackendBenchmark
+{
+    @Param({ "simple", "log4j", "null" })
+    public String backend;
+
+    private RenderingDelegateLogger delegateLogger;
+    private MessageTemplate template = Loggers.getMessageTemplate("event {} from {}");
+    private Object value = 12345;
+    private File log4jFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        final LoggerManager loggerManager;
+        if (backend.equals("simple"))
+        {
+            loggerManager = new SimpleLoggerManager();
+        }
+        else if (backend.equals("log4j"))
+        {
+            log4jFile = File.createTempFile("tc-logging-benchmarks", ".log");
+            final org.apache.log4j.Logger rootLogger = LogManager.getRootLogger();
+            rootLogger.removeAllAppenders();
+            rootLogger.setLevel(Level.INFO);
+            rootLogger.addAppender(new FileAppender(new PatternLayout("%d{ISO8601} %-5p %c - %m%n"), log4jFile
+                    .getPath(), true, true, 256 * 1024));
+            loggerManager = new Log4jLoggerManager();
+        }
+        else if (backend.equals("null"))
+        {
+            loggerManager = new NullLoggerManager();
+        }
+        else
+        {
+            throw new IllegalArgumentException(backend);
+        }
+        delegateLogger = Loggers.getRenderingDelegateLogger(loggerManager.getDelegateLogger(BackendBenchmark.class));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        if (log4jFile != null)
+        {
+            LogManager.shutdown();
+            log4jFile.delete();
+        }
+    }
+
+    private void log()
+    {
+        if (delegateLogger.isLevelEnabled(LoggerLevel.INFO))
+        {
+            delegateLogger.log(LoggerLevel.INFO, template, new Object[] { value, backend });
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads1()
+    {
+        log();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads4()
+    {
+        log();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16()
+    {
+        log();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64()
+    {
+        log();
+    }
+}
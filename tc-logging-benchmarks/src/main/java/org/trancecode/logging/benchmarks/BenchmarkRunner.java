@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the tc-logging benchmarks with the GC profiler enabled, so that the
+ * allocation rate of each benchmark is reported along with its score.
+ * <p>
+ * Build the module with <code>mvn package</code> and run:
+ * <p>
+ * <code>
+ * java -jar tc-logging-benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ * </code>
+ * <p>
+ * {@link org.trancecode.logging.Logger} binds to tc-logging-simple in the
+ * benchmarks jar. The other backends are benchmarked through their delegate
+ * loggers.
+ * 
+ * @author Herve Quiroz
+ */
+public final class BenchmarkRunner
+{
+    private BenchmarkRunner()
+    {
+        // No instantiation
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(
+                GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trancecode.logging.Logger;
+
+/**
+ * Cost of a {@link Logger} call for a disabled level, for every arity.
+ * 
+ * @author Herve Quiroz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Dlogging.level=INFO", "-Dlogging.output.directory=<none>" })
+@State(Scope.Benchmark)
+public class DisabledLoggerBenchmark
+{
+    private Logger logger = Logger.getLogger(DisabledLoggerBenchmark.class);
+    private Object a = "a";
+    private Object b = 2;
+    private Object c = 3L;
+    private Object d = 'd';
+    private Object e = 5.0;
+    private int intValue = 1;
+    private long longValue = 2;
+    private float floatValue = 3;
+    private double doubleValue = 4;
+    private char charValue = 'c';
+    private boolean booleanValue = true;
+
+    @Benchmark
+    public void noArgument()
+    {
+        logger.trace("message");
+    }
+
+    @Benchmark
+    public void oneArgument()
+    {
+        logger.trace("message {}", a);
+    }
+
+    @Benchmark
+    public void twoArguments()
+    {
+        logger.trace("message {} {}", a, b);
+    }
+
+    @Benchmark
+    public void threeArguments()
+    {
+        logger.trace("message {} {} {}", a, b, c);
+    }
+
+    @Benchmark
+    public void fourArguments()
+    {
+        logger.trace("message {} {} {} {}", a, b, c, d);
+    }
+
+    @Benchmark
+    public void varargs()
+    {
+        logger.trace("message {} {} {} {} {}", a, b, c, d, e);
+    }
+
+    @Benchmark
+    public void intArgument()
+    {
+        logger.trace("message {}", intValue);
+    }
+
+    @Benchmark
+    public void longArgument()
+    {
+        logger.trace("message {}", longValue);
+    }
+
+    @Benchmark
+    public void floatArgument()
+    {
+        logger.trace("message {}", floatValue);
+    }
+
+    @Benchmark
+    public void doubleArgument()
+    {
+        logger.trace("message {}", doubleValue);
+    }
+
+    @Benchmark
+    public void charArgument()
+    {
+        logger.trace("message {}", charValue);
+    }
+
+    @Benchmark
+    public void booleanArgument()
+    {
+        logger.trace("message {}", booleanValue);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trancecode.logging.spi.Loggers;
+
+/**
+ * Cost of the dispatch of <code>{method}</code> place-holders to an
+ * {@link org.trancecode.logging.formatter.ArgumentFormatter} and of
+ * <code>{&#064;method}</code> macros.
+ * 
+ * @author Herve Quiroz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatArgumentBenchmark
+{
+    private Object collection = Arrays.asList("a", "b", "c");
+
+    @Benchmark
+    public Object noMethod()
+    {
+        return Loggers.formatArgument(collection, "");
+    }
+
+    @Benchmark
+    public Object size()
+    {
+        return Loggers.formatArgument(collection, "size");
+    }
+
+    @Benchmark
+    public Object classSimpleName()
+    {
+        return Loggers.formatArgument(collection, "class.simpleName");
+    }
+
+    @Benchmark
+    public Object methodMacro()
+    {
+        return Loggers.formatMacro("@method");
+    }
+
+    @Benchmark
+    public String methodMacroMessage()
+    {
+        return Loggers.formatMessage("in {@method}: size = {size}", collection).toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trancecode.logging.spi.Loggers;
+
+/**
+ * Cost of rendering a message with {@link Loggers#formatMessage}, depending on
+ * the number of place-holders.
+ * 
+ * @author Herve Quiroz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatMessageBenchmark
+{
+    @Param({ "0", "1", "2", "3", "4", "5", "6", "7", "8" })
+    public int placeholders;
+
+    private String message;
+    private Object[] args;
+
+    @Setup
+    public void setUp()
+    {
+        final StringBuilder message = new StringBuilder("message");
+        args = new Object[placeholders];
+        for (int i = 0; i < placeholders; i++)
+        {
+            message.append(" {}");
+            // Alternate strings and numbers as most log messages do
+            args[i] = i % 2 == 0 ? "argument" + i : Integer.valueOf(i * 1000);
+        }
+        this.message = message.toString();
+    }
+
+    @Benchmark
+    public String formatMessage()
+    {
+        return Loggers.formatMessage(message, args).toString();
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.spi.DiagnosticContextListener;
+
+/**
+ * A mapped diagnostic context: key-value pairs attached to the current thread
+ * and rendered by the backends along with each log event, such as the id of
+ * the request being processed.
+ * <p>
+ * Contexts are immutable: changing the context of a thread replaces it with an
+ * updated copy. Taking a snapshot of the current context with
+ * {@link #current()} is thus a mere reference copy, which backends do for
+ * each event and which {@link #propagate(Runnable)} does for each task handed
+ * to another thread. Contexts are expected to hold a few entries, so that
+ * copying them on update is cheap.
+ * <p>
+ * The context is held by a plain thread-local that is only set while the
+ * context is not empty, and it is not inherited by child threads, so that
+ * short-lived threads such as virtual threads do not pay for it unless they
+ * use it.
+ * <p>
+ * Example use:
+ * 
+ * <pre>
+ * DiagnosticContext.put(&quot;request&quot;, requestId);
+ * try
+ * {
+ *     handleRequest(request);
+ * }
+ * finally
+ * {
+ *     DiagnosticContext.remove(&quot;request&quot;);
+ * }
+ * </pre>
+ * 
+ * @author Herve Quiroz
+ */
+public final class DiagnosticContext
+{
+    public static final DiagnosticContext EMPTY = new DiagnosticContext(new String[0], new String[0]);
+
+    private static final ThreadLocal<DiagnosticContext> CURRENT = new ThreadLocal<DiagnosticContext>();
+    private static final DiagnosticContextListener[] LISTENERS;
+
+    static
+    {
+        final List<DiagnosticContextListener> listeners = new ArrayList<DiagnosticContextListener>();
+        for (final DiagnosticContextListener listener : ServiceLoader.load(DiagnosticContextListener.class))
+        {
+            listeners.add(listener);
+        }
+        LISTENERS = listeners.toArray(new DiagnosticContextListener[listeners.size()]);
+    }
+
+    private final String[] keys;
+    private final String[] values;
+
+    private DiagnosticContext(final String[] keys, final String[] values)
+    {
+        assert keys.length == values.length;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns the context of the current thread.
+     */
+    public static DiagnosticContext current()
+    {
+        final DiagnosticContext context = CURRENT.get();
+        if (context == null)
+        {
+            return EMPTY;
+        }
+
+        return context;
+    }
+
+    /**
+     * Replaces the context of the current thread and returns the previous one,
+     * so that it can be restored.
+     */
+    public static DiagnosticContext set(final DiagnosticContext context)
+    {
+        Preconditions.checkNotNull(context);
+        final DiagnosticContext previousContext = current();
+        if (context == previousContext)
+        {
+            return previousContext;
+        }
+
+        if (context.isEmpty())
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(context);
+        }
+        for (final DiagnosticContextListener listener : LISTENERS)
+        {
+            listener.contextChanged(previousContext, context);
+        }
+
+        return previousContext;
+    }
+
+    /**
+     * Sets the value of the specified key in the context of the current thread,
+     * or removes the key if {@code value} is {@code null}.
+     */
+    public static void put(final String key, final String value)
+    {
+        set(current().withValue(key, value));
+    }
+
+    /**
+     * Returns the value of the specified key in the context of the current
+     * thread, or {@code null} if there is none.
+     */
+    public static String get(final String key)
+    {
+        return current().value(key);
+    }
+
+    /**
+     * Removes the specified key from the context of the current thread.
+     */
+    public static void remove(final String key)
+    {
+        set(current().withValue(key, null));
+    }
+
+    /**
+     * Removes all the keys from the context of the current thread.
+     */
+    public static void clear()
+    {
+        set(EMPTY);
+    }
+
+    /**
+     * Returns a task that runs with the context of the current thread.
+     */
+    public static Runnable propagate(final Runnable task)
+    {
+        Preconditions.checkNotNull(task);
+        final DiagnosticContext context = current();
+        if (context.isEmpty())
+        {
+            return task;
+        }
+
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                final DiagnosticContext previousContext = set(context);
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    set(previousContext);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a task that runs with the context of the current thread.
+     */
+    public static <T> Callable<T> propagate(final Callable<T> task)
+    {
+        Preconditions.checkNotNull(task);
+        final DiagnosticContext context = current();
+        if (context.isEmpty())
+        {
+            return task;
+        }
+
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                final DiagnosticContext previousContext = set(context);
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    set(previousContext);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns an executor that runs each task with the context of the thread
+     * that submitted it.
+     */
+    public static Executor propagate(final Executor executor)
+    {
+        Preconditions.checkNotNull(executor);
+        return new Executor()
+        {
+            @Override
+            public void execute(final Runnable task)
+            {
+                executor.execute(propagate(task));
+            }
+        };
+    }
+
+    public boolean isEmpty()
+    {
+        return keys.length == 0;
+    }
+
+    public int size()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key of the entry at the specified position, entries being
+     * kept in the order in which their keys were first set.
+     */
+    public String key(final int index)
+    {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value of the entry at the specified position.
+     */
+    public String value(final int index)
+    {
+        return values[index];
+    }
+
+    /**
+     * Returns the value of the specified key, or {@code null} if there is none.
+     */
+    public String value(final String key)
+    {
+        final int index = indexOf(key);
+        if (index < 0)
+        {
+            return null;
+        }
+
+        return values[index];
+    }
+
+    private int indexOf(final String key)
+    {
+        Preconditions.checkNotNull(key);
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i].equals(key))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns a copy of this context with the specified value for the key, or
+     * without the key if {@code value} is {@code null}.
+     */
+    public DiagnosticContext withValue(final String key, final String value)
+    {
+        final int index = indexOf(key);
+        if (value == null)
+        {
+            if (index < 0)
+            {
+                return this;
+            }
+            if (keys.length == 1)
+            {
+                return EMPTY;
+            }
+
+            final String[] newKeys = new String[keys.length - 1];
+            final String[] newValues = new String[keys.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(values, index + 1, newValues, index, keys.length - index - 1);
+            return new DiagnosticContext(newKeys, newValues);
+        }
+
+        if (index >= 0)
+        {
+            if (values[index].equals(value))
+            {
+                return this;
+            }
+
+            final String[] newValues = values.clone();
+            newValues[index] = value;
+            return new DiagnosticContext(keys, newValues);
+        }
+
+        final String[] newKeys = new String[keys.length + 1];
+        final String[] newValues = new String[keys.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, keys.length);
+        System.arraycopy(values, 0, newValues, 0, keys.length);
+        newKeys[keys.length] = key;
+        newValues[keys.length] = value;
+        return new DiagnosticContext(newKeys, newValues);
+    }
+
+    /**
+     * Returns the entries of this context as an unmodifiable map.
+     */
+    public Map<String, String> toMap()
+    {
+        final Map<String, String> map = new LinkedHashMap<String, String>();
+        for (int i = 0; i < keys.length; i++)
+        {
+            map.put(keys[i], values[i]);
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Renders this context as <code>[key1=value1, key2=value2]</code>.
+     */
+    public StringBuilder appendTo(final StringBuilder buffer)
+    {
+        buffer.append('[');
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (i > 0)
+            {
+                buffer.append(", ");
+            }
+            buffer.append(keys[i]).append('=').append(values[i]);
+        }
+
+        return buffer.append(']');
+    }
+
+    @Override
+    public String toString()
+    {
+        return appendTo(new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Enables a lower logging level for the current thread only, for instance to
+ * trace a single request while the other threads keep the configured levels.
+ * <p>
+ * The override only enables extra levels: a level enabled by the
+ * configuration stays enabled.
+ * <p>
+ * Example use:
+ * 
+ * <pre>
+ * final LevelOverride override = LevelOverride.set(LoggerLevel.DEBUG);
+ * try
+ * {
+ *     handleRequest(request);
+ * }
+ * finally
+ * {
+ *     override.restore();
+ * }
+ * </pre>
+ * 
+ * Tasks handed to other threads keep the override of the thread that submits
+ * them when they are wrapped with {@link #propagate(Runnable)},
+ * {@link #propagate(Callable)} or {@link #propagate(Executor)}.
+ * 
+ * @author Herve Quiroz
+ */
+public final class LevelOverride
+{
+    private static final ThreadLocal<Holder> HOLDER = new ThreadLocal<Holder>();
+
+    /**
+     * The holders of the threads that have an override. A thread that dies
+     * without restoring its override is removed once it has been garbage
+     * collected, the next time an override is set or restored.
+     */
+    private static final Set<Holder> ACTIVE_HOLDERS = new HashSet<Holder>();
+    private static final ReferenceQueue<Thread> DEAD_THREADS = new ReferenceQueue<Thread>();
+
+    /**
+     * The number of threads with an override, so that {@link Logger} only
+     * looks up the thread-local when some thread actually has one.
+     */
+    private static volatile int activeOverrides;
+
+    /**
+     * The override of a thread, only accessed by that thread once created.
+     */
+    private static final class Holder extends WeakReference<Thread>
+    {
+        private LoggerLevel level;
+
+        public Holder(final Thread thread)
+        {
+            super(thread, DEAD_THREADS);
+        }
+    }
+
+    private final Thread thread;
+    private final LoggerLevel previousLevel;
+    private boolean restored;
+
+    private LevelOverride(final LoggerLevel previousLevel)
+    {
+        this.thread = Thread.currentThread();
+        this.previousLevel = previousLevel;
+    }
+
+    /**
+     * Sets the lowest level enabled for the current thread, or removes the
+     * override if {@code level} is {@code null}, until the returned override
+     * is {@link #restore() restored}.
+     * <p>
+     * The override must be restored in a {@code finally} block, as shown
+     * above, so that it does not leak into the next task of a pooled thread.
+     */
+    public static LevelOverride set(final LoggerLevel level)
+    {
+        return new LevelOverride(setLevel(level));
+    }
+
+    /**
+     * Returns the level set for the current thread, or {@code null} if there
+     * is no override.
+     */
+    public static LoggerLevel get()
+    {
+        final Holder holder = HOLDER.get();
+        return holder == null ? null : holder.level;
+    }
+
+    private static LoggerLevel setLevel(final LoggerLevel level)
+    {
+        Holder holder = HOLDER.get();
+        if (holder == null)
+        {
+            if (level == null)
+            {
+                return null;
+            }
+            holder = new Holder(Thread.currentThread());
+            HOLDER.set(holder);
+        }
+
+        final LoggerLevel previousLevel = holder.level;
+        holder.level = level;
+        if (previousLevel == null && level != null)
+        {
+            updateActiveOverrides(holder, true);
+        }
+        else if (previousLevel != null && level == null)
+        {
+            updateActiveOverrides(holder, false);
+        }
+
+        return previousLevel;
+    }
+
+    private static synchronized void updateActiveOverrides(final Holder holder, final boolean active)
+    {
+        if (active)
+        {
+            ACTIVE_HOLDERS.add(holder);
+        }
+        else
+        {
+            ACTIVE_HOLDERS.remove(holder);
+        }
+
+        while (true)
+        {
+            final Reference<? extends Thread> deadThread = DEAD_THREADS.poll();
+            if (deadThread == null)
+            {
+                break;
+            }
+            ACTIVE_HOLDERS.remove(deadThread);
+        }
+
+        activeOverrides = ACTIVE_HOLDERS.size();
+    }
+
+    /**
+     * Returns the number of threads with an override.
+     */
+    static int activeOverrides()
+    {
+        return activeOverrides;
+    }
+
+    /**
+     * Returns {@code true} if the specified level is enabled by the override
+     * of the current thread.
+     * <p>
+     * This is a single load when no thread has an override.
+     */
+    static boolean isEnabled(final LoggerLevel level)
+    {
+        if (activeOverrides == 0)
+        {
+            return false;
+        }
+
+        final Holder holder = HOLDER.get();
+        return holder != null && holder.level != null && level.compareTo(holder.level) >= 0;
+    }
+
+    /**
+     * Restores the override that was in place for the current thread before
+     * this one was set.
+     */
+    public void restore()
+    {
+        Preconditions.checkState(thread == Thread.currentThread(), "restored from another thread: %s", thread);
+        if (!restored)
+        {
+            restored = true;
+            setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Returns a task that runs with the override of the current thread, if
+     * any.
+     */
+    public static Runnable propagate(final Runnable task)
+    {
+        Preconditions.checkNotNull(task);
+        final LoggerLevel level = get();
+        if (level == null)
+        {
+            return task;
+        }
+
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                final LevelOverride override = set(level);
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    override.restore();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a task that runs with the override of the current thread, if
+     * any.
+     */
+    public static <T> Callable<T> propagate(final Callable<T> task)
+    {
+        Preconditions.checkNotNull(task);
+        final LoggerLevel level = get();
+        if (level == null)
+        {
+            return task;
+        }
+
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                final LevelOverride override = set(level);
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    override.restore();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns an executor that runs each task with the override of the thread
+     * that submitted it, if any.
+     */
+    public static Executor propagate(final Executor executor)
+    {
+        Preconditions.checkNotNull(executor);
+        return new Executor()
+        {
+            @Override
+            public void execute(final Runnable task)
+            {
+                executor.execute(propagate(task));
+            }
+        };
+    }
+}
@@ -15,11 +15,18 @@
  */
 package org.trancecode.logging;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.trancecode.base.Preconditions;
+import org.trancecode.base.Supplier;
+import org.trancecode.logging.spi.CallerLocator;
 import org.trancecode.logging.spi.DelegateLogger;
 import org.trancecode.logging.spi.LoggerLevel;
 import org.trancecode.logging.spi.LoggerManager;
 import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
+import org.trancecode.logging.spi.RenderingDelegateLogger;
 
 /**
  * The main logger facade class.
@@ -28,14 +35,50 @@ import org.trancecode.logging.spi.Loggers;
  */
 public final class Logger
 {
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final int PRIMITIVE_ARGUMENT_CAPACITY = 32;
+    private static final ThreadLocal<StringBuilder> PRIMITIVE_ARGUMENT = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder(PRIMITIVE_ARGUMENT_CAPACITY);
+        }
+    };
+    private static final int LOGGER_CACHE_SIZE = 8192;
+    private static final ConcurrentMap<String, Logger> LOGGERS = new ConcurrentHashMap<String, Logger>();
+    private static final LoggerLevel[] LEVELS = LoggerLevel.values();
+    private static final int LEVEL_BITS = 3;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+    private static final int STALE_THRESHOLD = -1;
+
     private final DelegateLogger delegateLogger;
+    private final RenderingDelegateLogger renderingDelegateLogger;
+    private final boolean levelCachingSupported;
+
+    /**
+     * The {@link LoggerManager#levelsGeneration() generation} of the levels in
+     * the upper bits and the ordinal of the lowest enabled level in the lower
+     * {@link #LEVEL_BITS} bits, or {@link #STALE_THRESHOLD} when levels are not
+     * cached yet.
+     * <p>
+     * This field is not volatile: a thread that does not see the latest value
+     * simply computes it again.
+     */
+    private int threshold = STALE_THRESHOLD;
 
     /**
      * Returns a logger for the specified class.
      */
     public static Logger getLogger(final Class<?> forClass)
     {
-        return new Logger(LoggerManager.getLoggerManager().getDelegateLogger(forClass));
+        final Logger cachedLogger = LOGGERS.get(forClass.getName());
+        if (cachedLogger != null)
+        {
+            return cachedLogger;
+        }
+
+        return getLogger(LoggerManager.getLoggerManager().getDelegateLogger(forClass));
     }
 
     /**
@@ -43,7 +86,40 @@ public final class Logger
      */
     public static Logger getLogger(final String name)
     {
-        return new Logger(LoggerManager.getLoggerManager().getDelegateLogger(name));
+        final Logger cachedLogger = LOGGERS.get(name);
+        if (cachedLogger != null)
+        {
+            return cachedLogger;
+        }
+
+        return getLogger(LoggerManager.getLoggerManager().getDelegateLogger(name));
+    }
+
+    /**
+     * Returns the canonical logger for the specified delegate logger.
+     * <p>
+     * As for delegate loggers, the cache is bounded so that loggers created
+     * past that point are simply not retained.
+     */
+    private static Logger getLogger(final DelegateLogger delegateLogger)
+    {
+        final Logger cachedLogger = LOGGERS.get(delegateLogger.loggerName());
+        if (cachedLogger != null && cachedLogger.delegateLogger == delegateLogger)
+        {
+            return cachedLogger;
+        }
+
+        final Logger logger = new Logger(delegateLogger);
+        if (cachedLogger == null && LOGGERS.size() < LOGGER_CACHE_SIZE)
+        {
+            final Logger previousLogger = LOGGERS.putIfAbsent(delegateLogger.loggerName(), logger);
+            if (previousLogger != null && previousLogger.delegateLogger == delegateLogger)
+            {
+                return previousLogger;
+            }
+        }
+
+        return logger;
     }
 
     /**
@@ -69,14 +145,14 @@ public final class Logger
      */
     public static Logger getLogger()
     {
-        final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        final String invokingClassName = stackTrace[2].getClassName();
-        return getLogger(invokingClassName);
+        return getLogger(CallerLocator.getCaller(Logger.class).getClassName());
     }
 
     private Logger(final DelegateLogger delegateLogger)
     {
         this.delegateLogger = Preconditions.checkNotNull(delegateLogger);
+        this.renderingDelegateLogger = Loggers.getRenderingDelegateLogger(delegateLogger);
+        this.levelCachingSupported = LoggerManager.getLoggerManager().isLevelCachingSupported();
     }
 
     /**
@@ -92,22 +168,373 @@ public final class Logger
      */
     public Logger getChildLogger(final String name)
     {
-        return new Logger(delegateLogger.getChild(name));
+        return getLogger(delegateLogger.getChild(name));
+    }
+
+    /**
+     * Checks the cached threshold when it is up to date, which after inlining
+     * is a couple of loads and comparisons, and then the
+     * {@link LevelOverride override} of the current thread, if any.
+     */
+    private boolean isLevelEnabled(final LoggerLevel level)
+    {
+        final int threshold = this.threshold;
+        final boolean enabled;
+        if (threshold >> LEVEL_BITS == LoggerManager.levelsGeneration())
+        {
+            enabled = level.ordinal() >= (threshold & LEVEL_MASK);
+        }
+        else
+        {
+            enabled = updateThreshold(level);
+        }
+
+        return enabled || LevelOverride.isEnabled(level);
+    }
+
+    private boolean updateThreshold(final LoggerLevel level)
+    {
+        if (!levelCachingSupported)
+        {
+            return delegateLogger.isLevelEnabled(level);
+        }
+
+        // Read before the levels so that a concurrent change is not missed
+        final int generation = LoggerManager.levelsGeneration();
+        int lowestEnabledLevel = 0;
+        while (lowestEnabledLevel < LEVELS.length && !delegateLogger.isLevelEnabled(LEVELS[lowestEnabledLevel]))
+        {
+            lowestEnabledLevel++;
+        }
+        threshold = generation << LEVEL_BITS | lowestEnabledLevel;
+
+        return level.ordinal() >= lowestEnabledLevel;
+    }
+
+    /**
+     * Returns {@code true} if the specified level is enabled for the
+     * underlying logger or logging channel.
+     * <p>
+     * Logging methods already check the level before formatting the message,
+     * so this is only needed to guard work done outside of the logging call.
+     */
+    public boolean isEnabled(final LoggerLevel level)
+    {
+        return isLevelEnabled(level);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#TRACE} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isTraceEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.TRACE);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#DEBUG} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isDebugEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.DEBUG);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#INFO} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isInfoEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.INFO);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#WARN} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isWarnEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.WARN);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#ERROR} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isErrorEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.ERROR);
+    }
+
+    /**
+     * Returns {@code true} if the {@link LoggerLevel#FATAL} level is enabled.
+     * 
+     * @see #isEnabled(LoggerLevel)
+     */
+    public boolean isFatalEnabled()
+    {
+        return isLevelEnabled(LoggerLevel.FATAL);
+    }
+
+    private void render(final LoggerLevel level, final String message, final Object[] args)
+    {
+        try
+        {
+            renderingDelegateLogger.log(level, Loggers.getMessageTemplate(message), args);
+        }
+        catch (final Exception e)
+        {
+            delegateLogger.error(e);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final Object[] args)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, args);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, NO_ARGUMENTS);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final Object arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, new Object[] { arg });
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final Object arg1, final Object arg2)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, new Object[] { arg1, arg2 });
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final Object arg1, final Object arg2,
+            final Object arg3)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final Object arg1, final Object arg2,
+            final Object arg3, final Object arg4)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, new Object[] { arg1, arg2, arg3, arg4 });
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final int arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.INT, arg);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final long arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.LONG, arg);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final float arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.FLOAT, Float.floatToRawIntBits(arg));
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final double arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.DOUBLE, Double.doubleToRawLongBits(arg));
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final char arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.CHAR, arg);
+        }
+    }
+
+    private void log(final LoggerLevel level, final String message, final boolean arg)
+    {
+        if (isLevelEnabled(level))
+        {
+            render(level, message, PrimitiveType.BOOLEAN, arg ? 1 : 0);
+        }
     }
 
-    private void log(final LoggerLevel level, final String message, final Object... args)
+    /**
+     * Renders a message with a single primitive argument, passed as its bits
+     * widened to a {@code long}.
+     * <p>
+     * If the place-holder of the argument is plain, the argument is rendered
+     * as text into a per-thread buffer that the backend copies into the
+     * message like any other character sequence. It is only boxed otherwise.
+     */
+    private void render(final LoggerLevel level, final String message, final PrimitiveType type, final long bits)
     {
-        if (delegateLogger.isLevelEnabled(level))
+        try
         {
+            final MessageTemplate template = Loggers.getMessageTemplate(message);
+            if (!template.isPlainArgument(0))
+            {
+                renderingDelegateLogger.log(level, template, new Object[] { type.box(bits) });
+                return;
+            }
+
+            // The buffer is taken out of the thread-local while in use in case
+            // an argument formatter logs something itself
+            StringBuilder argument = PRIMITIVE_ARGUMENT.get();
+            PRIMITIVE_ARGUMENT.set(null);
+            if (argument == null)
+            {
+                argument = new StringBuilder(PRIMITIVE_ARGUMENT_CAPACITY);
+            }
             try
             {
-                delegateLogger.log(level, Loggers.formatMessage(message, args));
+                argument.setLength(0);
+                type.append(argument, bits);
+                renderingDelegateLogger.log(level, template, new Object[] { argument });
             }
-            catch (final Exception e)
+            finally
             {
-                delegateLogger.error(e);
+                PRIMITIVE_ARGUMENT.set(argument);
             }
         }
+        catch (final Exception e)
+        {
+            delegateLogger.error(e);
+        }
+    }
+
+    /**
+     * The primitive types of the arguments that are rendered without boxing.
+     */
+    private enum PrimitiveType
+    {
+        INT
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append((int) bits);
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Integer.valueOf((int) bits);
+            }
+        },
+
+        LONG
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append(bits);
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Long.valueOf(bits);
+            }
+        },
+
+        FLOAT
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append(Float.intBitsToFloat((int) bits));
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Float.valueOf(Float.intBitsToFloat((int) bits));
+            }
+        },
+
+        DOUBLE
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append(Double.longBitsToDouble(bits));
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Double.valueOf(Double.longBitsToDouble(bits));
+            }
+        },
+
+        CHAR
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append((char) bits);
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Character.valueOf((char) bits);
+            }
+        },
+
+        BOOLEAN
+        {
+            @Override
+            void append(final StringBuilder buffer, final long bits)
+            {
+                buffer.append(bits != 0);
+            }
+
+            @Override
+            Object box(final long bits)
+            {
+                return Boolean.valueOf(bits != 0);
+            }
+        };
+
+        abstract void append(StringBuilder buffer, long bits);
+
+        abstract Object box(long bits);
     }
 
     /**
@@ -125,68 +552,648 @@ public final class Logger
     }
 
     /**
-     * Sends a {@link LoggerLevel#DEBUG}-level log event to the underlying
-     * logger or logging channel.
-     * <p>
-     * The message is actually only formatted if the {@link LoggerLevel#DEBUG}
-     * level is enabled for the underlying logger or logging channel.
-     * 
-     * @see Loggers#formatMessage(String, Object...)
+     * Same as {@link #trace(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
      */
-    public void debug(final String message, final Object... args)
+    public void trace(final String message)
     {
-        log(LoggerLevel.DEBUG, message, args);
+        log(LoggerLevel.TRACE, message);
     }
 
     /**
-     * Sends a {@link LoggerLevel#INFO}-level log event to the underlying logger
-     * or logging channel.
-     * <p>
-     * The message is actually only formatted if the {@link LoggerLevel#INFO}
-     * level is enabled for the underlying logger or logging channel.
-     * 
-     * @see Loggers#formatMessage(String, Object...)
+     * Same as {@link #trace(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
      */
-    public void info(final String message, final Object... args)
+    public void trace(final String message, final Object arg)
     {
-        log(LoggerLevel.INFO, message, args);
+        log(LoggerLevel.TRACE, message, arg);
     }
 
     /**
-     * Sends a {@link LoggerLevel#WARN}-level log event to the underlying logger
-     * or logging channel.
-     * <p>
-     * The message is actually only formatted if the {@link LoggerLevel#WARN}
-     * level is enabled for the underlying logger or logging channel.
+     * Same as {@link #trace(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
      * 
-     * @see Loggers#formatMessage(String, Object...)
+     * @see Loggers#formatArgument(Object, String)
      */
-    public void warn(final String message, final Object... args)
+    public void trace(final String message, final Supplier<?> arg)
     {
-        log(LoggerLevel.WARN, message, args);
+        log(LoggerLevel.TRACE, message, arg);
     }
 
     /**
-     * Sends a {@link LoggerLevel#ERROR}-level log event to the underlying
-     * logger or logging channel.
-     * <p>
-     * The message is actually only formatted if the {@link LoggerLevel#ERROR}
-     * level is enabled for the underlying logger or logging channel.
-     * 
-     * @see Loggers#formatMessage(String, Object...)
+     * Same as {@link #trace(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
      */
-    public void error(final String message, final Object... args)
+    public void trace(final String message, final Object arg1, final Object arg2)
     {
-        log(LoggerLevel.ERROR, message, args);
+        log(LoggerLevel.TRACE, message, arg1, arg2);
     }
 
     /**
-     * Sends a {@link LoggerLevel#FATAL}-level log event to the underlying
-     * logger or logging channel.
-     * <p>
-     * The message is actually only formatted if the {@link LoggerLevel#FATAL}
-     * level is enabled for the underlying logger or logging channel.
-     * 
+     * Same as {@link #trace(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void trace(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.TRACE, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for four arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void trace(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.TRACE, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final int arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final long arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final float arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final double arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final char arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Same as {@link #trace(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void trace(final String message, final boolean arg)
+    {
+        log(LoggerLevel.TRACE, message, arg);
+    }
+
+    /**
+     * Sends a {@link LoggerLevel#DEBUG}-level log event to the underlying
+     * logger or logging channel.
+     * <p>
+     * The message is actually only formatted if the {@link LoggerLevel#DEBUG}
+     * level is enabled for the underlying logger or logging channel.
+     * 
+     * @see Loggers#formatMessage(String, Object...)
+     */
+    public void debug(final String message, final Object... args)
+    {
+        log(LoggerLevel.DEBUG, message, args);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
+     */
+    public void debug(final String message)
+    {
+        log(LoggerLevel.DEBUG, message);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void debug(final String message, final Object arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
+     * 
+     * @see Loggers#formatArgument(Object, String)
+     */
+    public void debug(final String message, final Supplier<?> arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void debug(final String message, final Object arg1, final Object arg2)
+    {
+        log(LoggerLevel.DEBUG, message, arg1, arg2);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void debug(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.DEBUG, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for four arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void debug(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.DEBUG, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final int arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final long arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final float arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final double arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final char arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Same as {@link #debug(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void debug(final String message, final boolean arg)
+    {
+        log(LoggerLevel.DEBUG, message, arg);
+    }
+
+    /**
+     * Sends a {@link LoggerLevel#INFO}-level log event to the underlying logger
+     * or logging channel.
+     * <p>
+     * The message is actually only formatted if the {@link LoggerLevel#INFO}
+     * level is enabled for the underlying logger or logging channel.
+     * 
+     * @see Loggers#formatMessage(String, Object...)
+     */
+    public void info(final String message, final Object... args)
+    {
+        log(LoggerLevel.INFO, message, args);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
+     */
+    public void info(final String message)
+    {
+        log(LoggerLevel.INFO, message);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void info(final String message, final Object arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
+     * 
+     * @see Loggers#formatArgument(Object, String)
+     */
+    public void info(final String message, final Supplier<?> arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void info(final String message, final Object arg1, final Object arg2)
+    {
+        log(LoggerLevel.INFO, message, arg1, arg2);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void info(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.INFO, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for four arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void info(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.INFO, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final int arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final long arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final float arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final double arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final char arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Same as {@link #info(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void info(final String message, final boolean arg)
+    {
+        log(LoggerLevel.INFO, message, arg);
+    }
+
+    /**
+     * Sends a {@link LoggerLevel#WARN}-level log event to the underlying logger
+     * or logging channel.
+     * <p>
+     * The message is actually only formatted if the {@link LoggerLevel#WARN}
+     * level is enabled for the underlying logger or logging channel.
+     * 
+     * @see Loggers#formatMessage(String, Object...)
+     */
+    public void warn(final String message, final Object... args)
+    {
+        log(LoggerLevel.WARN, message, args);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
+     */
+    public void warn(final String message)
+    {
+        log(LoggerLevel.WARN, message);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void warn(final String message, final Object arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
+     * 
+     * @see Loggers#formatArgument(Object, String)
+     */
+    public void warn(final String message, final Supplier<?> arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void warn(final String message, final Object arg1, final Object arg2)
+    {
+        log(LoggerLevel.WARN, message, arg1, arg2);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void warn(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.WARN, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for four arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void warn(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.WARN, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final int arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final long arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final float arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final double arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final char arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Same as {@link #warn(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void warn(final String message, final boolean arg)
+    {
+        log(LoggerLevel.WARN, message, arg);
+    }
+
+    /**
+     * Sends a {@link LoggerLevel#ERROR}-level log event to the underlying
+     * logger or logging channel.
+     * <p>
+     * The message is actually only formatted if the {@link LoggerLevel#ERROR}
+     * level is enabled for the underlying logger or logging channel.
+     * 
+     * @see Loggers#formatMessage(String, Object...)
+     */
+    public void error(final String message, final Object... args)
+    {
+        log(LoggerLevel.ERROR, message, args);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
+     */
+    public void error(final String message)
+    {
+        log(LoggerLevel.ERROR, message);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void error(final String message, final Object arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
+     * 
+     * @see Loggers#formatArgument(Object, String)
+     */
+    public void error(final String message, final Supplier<?> arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void error(final String message, final Object arg1, final Object arg2)
+    {
+        log(LoggerLevel.ERROR, message, arg1, arg2);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void error(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.ERROR, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for four arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void error(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.ERROR, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final int arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final long arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final float arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final double arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final char arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Same as {@link #error(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void error(final String message, final boolean arg)
+    {
+        log(LoggerLevel.ERROR, message, arg);
+    }
+
+    /**
+     * Sends a {@link LoggerLevel#FATAL}-level log event to the underlying
+     * logger or logging channel.
+     * <p>
+     * The message is actually only formatted if the {@link LoggerLevel#FATAL}
+     * level is enabled for the underlying logger or logging channel.
+     * 
      * @see Loggers#formatMessage(String, Object...)
      */
     public void fatal(final String message, final Object... args)
@@ -194,6 +1201,122 @@ public final class Logger
         log(LoggerLevel.FATAL, message, args);
     }
 
+    /**
+     * Same as {@link #fatal(String, Object...)} for a message without argument,
+     * which spares the allocation of an argument array.
+     */
+    public void fatal(final String message)
+    {
+        log(LoggerLevel.FATAL, message);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for one argument, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void fatal(final String message, final Object arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object)} for an argument that is only
+     * computed if the level is enabled and the argument is actually rendered.
+     * 
+     * @see Loggers#formatArgument(Object, String)
+     */
+    public void fatal(final String message, final Supplier<?> arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for two arguments, which spares
+     * the allocation of an argument array when the level is disabled.
+     */
+    public void fatal(final String message, final Object arg1, final Object arg2)
+    {
+        log(LoggerLevel.FATAL, message, arg1, arg2);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for three arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void fatal(final String message, final Object arg1, final Object arg2, final Object arg3)
+    {
+        log(LoggerLevel.FATAL, message, arg1, arg2, arg3);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for four arguments, which
+     * spares the allocation of an argument array when the level is disabled.
+     */
+    public void fatal(final String message, final Object arg1, final Object arg2, final Object arg3, final Object arg4)
+    {
+        log(LoggerLevel.FATAL, message, arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code int}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final int arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code long}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final long arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code float}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final float arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code double}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final double arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code char}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final char arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
+    /**
+     * Same as {@link #fatal(String, Object...)} for a single {@code boolean}
+     * argument, which is not boxed when the level is disabled or when the
+     * argument is rendered by a plain <code>{}</code> place-holder.
+     */
+    public void fatal(final String message, final boolean arg)
+    {
+        log(LoggerLevel.FATAL, message, arg);
+    }
+
     /**
      * Sends a {@link LoggerLevel#TRACE}-level log event describing the
      * invocation of the current method.
@@ -205,7 +1328,7 @@ public final class Logger
      */
     public void methodInvoked(final Object... parameters)
     {
-        trace("{@method} <- {}", new Object[] { parameters });
+        trace("{@method} <- {}", (Object) parameters);
     }
 
     /**
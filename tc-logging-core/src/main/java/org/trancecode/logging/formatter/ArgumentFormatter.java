@@ -16,9 +16,22 @@
 package org.trancecode.logging.formatter;
 
 /**
+ * Formats log message arguments according to the method specified in their
+ * place-holder, such as <code>{size}</code>.
+ * <p>
+ * Implementations are registered as services. The formatter that handles a
+ * given argument class and method is remembered by
+ * {@link org.trancecode.logging.spi.Loggers#formatArgument(Object, String)},
+ * so whether an argument is supported should only depend on its class and the
+ * method.
+ * 
  * @author Herve Quiroz
  */
 public interface ArgumentFormatter
 {
+    /**
+     * Returns the formatted argument, or {@code null} if the argument class or
+     * method is not supported by this formatter.
+     */
     Object formatArgument(final Object argument, final String method);
 }
@@ -30,7 +30,8 @@ public final class ExceptionArgumentFormatter implements ArgumentFormatter
         {
             if (method.equals("message"))
             {
-                return ((Throwable) argument).getMessage();
+                // Returning null would mean the method is not supported
+                return String.valueOf(((Throwable) argument).getMessage());
             }
 
             if (method.equals("stackTrace"))
@@ -16,7 +16,9 @@
 package org.trancecode.logging.macro;
 
 import org.trancecode.logging.Logger;
+import org.trancecode.logging.spi.CallerLocator;
 import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
 
 /**
  * @author Herve Quiroz
@@ -26,16 +28,13 @@ public final class CurrentMethodMacroRenderer implements MacroRenderer
     @Override
     public Object get()
     {
-        final StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-
-        for (int i = 1; i < stackTraceElements.length; i++)
+        // The message may be rendered by the logging backend, in which case the
+        // invoking method is the first frame after the Logger frames
+        final StackTraceElement caller = CallerLocator.getCaller(Logger.class, Loggers.class, MessageTemplate.class,
+                CurrentMethodMacroRenderer.class);
+        if (caller != null)
         {
-            if (!stackTraceElements[i].getClassName().equals(Loggers.class.getName())
-                    && !stackTraceElements[i].getClassName().equals(Logger.class.getName())
-                    && !stackTraceElements[i].getClassName().equals(CurrentMethodMacroRenderer.class.getName()))
-            {
-                return stackTraceElements[i].getMethodName() + "()";
-            }
+            return caller.getMethodName() + "()";
         }
 
         return "<unknown>";
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * Locates the method that invoked the logging framework.
+ * <p>
+ * On Java 9 and later the stack is walked lazily through
+ * {@code java.lang.StackWalker}, up to a limited depth, so that only the
+ * frames actually inspected are materialized. On older runtimes the whole
+ * stack trace is captured instead. {@code StackWalker} is accessed through
+ * reflection so that tc-logging still runs on those runtimes.
+ * 
+ * @author Herve Quiroz
+ */
+public final class CallerLocator
+{
+    private static final int MAX_DEPTH = 64;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final String NESTED_CLASS_NAME_PREFIX = CallerLocator.class.getName() + "$";
+
+    private static final Object STACK_WALKER;
+    private static final Method WALK;
+    private static final Method ITERATOR;
+    private static final Method GET_CLASS_NAME;
+    private static final Method GET_METHOD_NAME;
+
+    /**
+     * The arguments of {@code StackWalker.walk}, that is the single
+     * {@code java.util.function.Function} shared by all lookups.
+     */
+    private static final Object[] WALK_ARGUMENTS;
+
+    /**
+     * The search state is reused by the successive lookups of each thread. No
+     * user code runs during a lookup, so that lookups are never nested.
+     */
+    private static final ThreadLocal<Search> SEARCH = new ThreadLocal<Search>()
+    {
+        @Override
+        protected Search initialValue()
+        {
+            return new Search();
+        }
+    };
+
+    static
+    {
+        Object stackWalker = null;
+        Method walk = null;
+        Method iterator = null;
+        Method getClassName = null;
+        Method getMethodName = null;
+        Object[] walkArguments = null;
+        try
+        {
+            final Class<?> stackWalkerClass = Class.forName("java.lang.StackWalker");
+            final Class<?> stackFrameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            final Class<?> functionClass = Class.forName("java.util.function.Function");
+            stackWalker = stackWalkerClass.getMethod("getInstance").invoke(null);
+            walk = stackWalkerClass.getMethod("walk", functionClass);
+            iterator = Class.forName("java.util.stream.BaseStream").getMethod("iterator");
+            getClassName = stackFrameClass.getMethod("getClassName");
+            getMethodName = stackFrameClass.getMethod("getMethodName");
+            walkArguments = new Object[] { Proxy.newProxyInstance(CallerLocator.class.getClassLoader(),
+                    new Class<?>[] { functionClass }, new WalkFunction()) };
+        }
+        catch (final Exception e)
+        {
+            // StackWalker is not available: fall back to stack traces
+            stackWalker = null;
+        }
+
+        STACK_WALKER = stackWalker;
+        WALK = walk;
+        ITERATOR = iterator;
+        GET_CLASS_NAME = getClassName;
+        GET_METHOD_NAME = getMethodName;
+        WALK_ARGUMENTS = walkArguments;
+    }
+
+    private CallerLocator()
+    {
+        // No instantiation
+    }
+
+    /**
+     * Returns the frame of the method that invoked the specified class.
+     * <p>
+     * That is the first frame that follows the frames of {@code boundary}. If
+     * no frame of {@code boundary} is found, this is the first frame that does
+     * not belong to any of the {@code skipped} classes. Returns {@code null} if
+     * no such frame is found within the inspected depth.
+     * <p>
+     * The returned element only holds the class and method names.
+     */
+    public static StackTraceElement getCaller(final Class<?> boundary, final Class<?>... skipped)
+    {
+        Preconditions.checkNotNull(boundary);
+
+        final Search search = SEARCH.get();
+        search.start(boundary.getName(), skipped);
+        try
+        {
+            if (STACK_WALKER != null)
+            {
+                try
+                {
+                    return (StackTraceElement) WALK.invoke(STACK_WALKER, WALK_ARGUMENTS);
+                }
+                catch (final Exception e)
+                {
+                    // Fall back to stack traces
+                    search.start(boundary.getName(), skipped);
+                }
+            }
+
+            final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+            for (int i = 0; i < stackTrace.length && i < MAX_DEPTH; i++)
+            {
+                if (search.accept(stackTrace[i].getClassName(), stackTrace[i].getMethodName()))
+                {
+                    break;
+                }
+            }
+
+            return search.result();
+        }
+        finally
+        {
+            search.clear();
+        }
+    }
+
+    /**
+     * The {@code java.util.function.Function} passed to
+     * {@code StackWalker.walk}, which feeds the frames to the search of the
+     * current thread.
+     */
+    private static final class WalkFunction implements InvocationHandler
+    {
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+        {
+            Preconditions.checkState(method.getName().equals("apply"), "method = %s", method);
+
+            final Search search = SEARCH.get();
+            final Iterator<?> frames = (Iterator<?>) ITERATOR.invoke(args[0], NO_ARGUMENTS);
+            for (int depth = 0; depth < MAX_DEPTH && frames.hasNext(); depth++)
+            {
+                final Object frame = frames.next();
+                if (search.accept((String) GET_CLASS_NAME.invoke(frame, NO_ARGUMENTS), (String) GET_METHOD_NAME
+                        .invoke(frame, NO_ARGUMENTS)))
+                {
+                    break;
+                }
+            }
+
+            return search.result();
+        }
+    }
+
+    /**
+     * Search state over successive frames.
+     */
+    private static final class Search
+    {
+        private String boundaryClassName;
+        private Class<?>[] skipped;
+        private boolean inBoundary;
+        private String firstUnskippedClassName;
+        private String firstUnskippedMethodName;
+        private String callerClassName;
+        private String callerMethodName;
+
+        public void start(final String boundaryClassName, final Class<?>[] skipped)
+        {
+            clear();
+            this.boundaryClassName = boundaryClassName;
+            this.skipped = skipped;
+        }
+
+        /**
+         * Releases the references to the classes and frames of the last
+         * lookup.
+         */
+        public void clear()
+        {
+            boundaryClassName = null;
+            skipped = null;
+            inBoundary = false;
+            firstUnskippedClassName = null;
+            firstUnskippedMethodName = null;
+            callerClassName = null;
+            callerMethodName = null;
+        }
+
+        /**
+         * Returns {@code true} once the caller has been found.
+         */
+        public boolean accept(final String className, final String methodName)
+        {
+            if (className.equals(boundaryClassName))
+            {
+                inBoundary = true;
+                return false;
+            }
+
+            if (inBoundary)
+            {
+                callerClassName = className;
+                callerMethodName = methodName;
+                return true;
+            }
+
+            if (firstUnskippedClassName == null && !isSkipped(className))
+            {
+                firstUnskippedClassName = className;
+                firstUnskippedMethodName = methodName;
+            }
+
+            return false;
+        }
+
+        private boolean isSkipped(final String className)
+        {
+            if (className.equals(CallerLocator.class.getName()) || className.startsWith(NESTED_CLASS_NAME_PREFIX)
+                    || className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                    || className.startsWith("com.sun.proxy."))
+            {
+                return true;
+            }
+
+            for (final Class<?> skippedClass : skipped)
+            {
+                if (className.equals(skippedClass.getName()))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public StackTraceElement result()
+        {
+            if (callerClassName != null)
+            {
+                return new StackTraceElement(callerClassName, callerMethodName, null, -1);
+            }
+
+            if (firstUnskippedClassName != null)
+            {
+                return new StackTraceElement(firstUnskippedClassName, firstUnskippedMethodName, null, -1);
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import org.trancecode.logging.DiagnosticContext;
+
+/**
+ * Notified when the {@link DiagnosticContext} of a thread changes, for
+ * instance to mirror it in the context of the underlying logging mechanism.
+ * <p>
+ * Implementations are registered as services and are invoked on the thread
+ * whose context changed.
+ * 
+ * @author Herve Quiroz
+ */
+public interface DiagnosticContextListener
+{
+    void contextChanged(DiagnosticContext previousContext, DiagnosticContext context);
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * Watches a levels file so that logger levels can be changed without
+ * restarting the JVM.
+ * <p>
+ * A levels file is a properties file mapping logger name prefixes to levels:
+ * <p>
+ * <code>
+ * com.foo=DEBUG<br>
+ * com.foo.bar=WARN
+ * </code>
+ * <p>
+ * The file is polled from a background daemon thread, which does not rely on
+ * {@code java.nio.file} so that it still runs on Java 6. Removing the file
+ * removes the levels it defined. Nothing is done on the logging threads.
+ * 
+ * @author Herve Quiroz
+ */
+public abstract class LevelsFileWatcher implements Runnable
+{
+    private final File file;
+    private final long interval;
+    private long lastModified;
+    private long length;
+
+    /**
+     * Creates a watcher for the changes made to the specified file from now
+     * on, checking for changes every {@code interval} milliseconds.
+     */
+    protected LevelsFileWatcher(final File file, final long interval)
+    {
+        Preconditions.checkArgument(interval > 0, "interval = %s", interval);
+        this.file = Preconditions.checkNotNull(file);
+        this.interval = interval;
+        lastModified = file.lastModified();
+        length = file.length();
+    }
+
+    /**
+     * Returns the levels set in the specified properties for the keys that
+     * start with the specified prefix, indexed by the rest of the key.
+     */
+    public static Map<String, LoggerLevel> parseLevels(final Properties properties, final String keyPrefix)
+    {
+        final Map<String, LoggerLevel> levels = new HashMap<String, LoggerLevel>();
+        for (final String key : properties.stringPropertyNames())
+        {
+            if (key.startsWith(keyPrefix) && key.length() > keyPrefix.length())
+            {
+                levels.put(key.substring(keyPrefix.length()), LoggerLevel.valueOf(properties.getProperty(key).trim()
+                        .toUpperCase()));
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Returns the levels defined in the specified levels file, which are none
+     * if the file does not exist.
+     */
+    public static Map<String, LoggerLevel> readLevels(final File file) throws IOException
+    {
+        if (!file.exists())
+        {
+            return Collections.emptyMap();
+        }
+
+        final Properties properties = new Properties();
+        final InputStream input = new FileInputStream(file);
+        try
+        {
+            properties.load(input);
+        }
+        finally
+        {
+            input.close();
+        }
+        return parseLevels(properties, "");
+    }
+
+    /**
+     * Starts watching the file from a new daemon thread.
+     */
+    public final Thread start(final String threadName)
+    {
+        final Thread thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    @Override
+    public final void run()
+    {
+        while (true)
+        {
+            try
+            {
+                Thread.sleep(interval);
+            }
+            catch (final InterruptedException e)
+            {
+                return;
+            }
+
+            final long newLastModified = file.lastModified();
+            final long newLength = file.length();
+            if (newLastModified == lastModified && newLength == length)
+            {
+                continue;
+            }
+            lastModified = newLastModified;
+            length = newLength;
+
+            try
+            {
+                levelsChanged(readLevels(file));
+            }
+            catch (final Exception e)
+            {
+                // The previous levels are kept until the file is fixed
+                error(e);
+            }
+        }
+    }
+
+    /**
+     * Applies the levels now defined in the file.
+     */
+    protected abstract void levelsChanged(Map<String, LoggerLevel> levels);
+
+    /**
+     * Reports that the file could not be read.
+     */
+    protected void error(final Exception e)
+    {
+        e.printStackTrace();
+    }
+}
@@ -17,12 +17,21 @@ package org.trancecode.logging.spi;
 
 import java.util.Iterator;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.trancecode.base.Preconditions;
 
 /**
  * @author Herve Quiroz
  */
 public abstract class LoggerManager
 {
+    private static final int DELEGATE_LOGGER_CACHE_SIZE = 8192;
+    private static final int LEVELS_GENERATION_MASK = 0x0FFFFFFF;
+
+    private static volatile int levelsGeneration;
+
     private static class LoggerManagerFactory
     {
         private static final LoggerManager INSTANCE;
@@ -50,7 +59,107 @@ public abstract class LoggerManager
         return LoggerManagerFactory.INSTANCE;
     }
 
-    public abstract DelegateLogger getDelegateLogger(final String name);
+    /**
+     * Returns the current generation of the logging levels.
+     * <p>
+     * The generation changes each time {@link #levelsChanged()} is invoked. It
+     * is a non-negative number that wraps around.
+     * 
+     * @see #isLevelCachingSupported()
+     */
+    public static int levelsGeneration()
+    {
+        return levelsGeneration;
+    }
+
+    /**
+     * Notifies that the levels of some delegate loggers may have changed,
+     * which invalidates the levels cached so far.
+     * 
+     * @see #isLevelCachingSupported()
+     */
+    public static synchronized void levelsChanged()
+    {
+        levelsGeneration = (levelsGeneration + 1) & LEVELS_GENERATION_MASK;
+    }
+
+    /**
+     * Returns {@code true} if the enabled levels of the delegate loggers may be
+     * cached by the {@link org.trancecode.logging.Logger} facade rather than
+     * checked on each call.
+     * <p>
+     * Implementations that return {@code true} must invoke
+     * {@link #levelsChanged()} whenever the enabled levels of a delegate logger
+     * may change, and levels must be ordered: if a level is enabled, all the
+     * levels above are enabled too.
+     */
+    public boolean isLevelCachingSupported()
+    {
+        return false;
+    }
+
+    private final ConcurrentMap<String, DelegateLogger> delegates = new ConcurrentHashMap<String, DelegateLogger>();
+
+    /**
+     * Returns the delegate logger for the specified logging channel name.
+     * <p>
+     * Delegate loggers are cached so that a given name always returns the same
+     * instance. The cache is bounded: once it is full, delegate loggers for
+     * names that are not already cached are created on each call by
+     * {@link #newUncachedDelegateLogger(String)}.
+     * <p>
+     * Implementations written against earlier versions may still override
+     * this method instead of {@link #newDelegateLogger(String)}.
+     */
+    public DelegateLogger getDelegateLogger(final String name)
+    {
+        final DelegateLogger cachedDelegateLogger = delegates.get(name);
+        if (cachedDelegateLogger != null)
+        {
+            return cachedDelegateLogger;
+        }
+
+        if (delegates.size() >= DELEGATE_LOGGER_CACHE_SIZE)
+        {
+            return Preconditions.checkNotNull(newUncachedDelegateLogger(name));
+        }
+
+        final DelegateLogger delegateLogger = Preconditions.checkNotNull(newDelegateLogger(name));
+        final DelegateLogger previousDelegateLogger = delegates.putIfAbsent(name, delegateLogger);
+        if (previousDelegateLogger != null)
+        {
+            return previousDelegateLogger;
+        }
+
+        return delegateLogger;
+    }
+
+    /**
+     * Creates a new delegate logger for the specified logging channel name.
+     * <p>
+     * This method is invoked by {@link #getDelegateLogger(String)} when the
+     * delegate logger is not already cached. It must be overridden unless
+     * {@link #getDelegateLogger(String)} is.
+     */
+    protected DelegateLogger newDelegateLogger(final String name)
+    {
+        throw new UnsupportedOperationException(String.format(
+                "%s overrides neither getDelegateLogger(String) nor newDelegateLogger(String)", getClass().getName()));
+    }
+
+    /**
+     * Creates a delegate logger that is not cached because the cache is full.
+     * <p>
+     * This method is invoked on each call to {@link #getDelegateLogger(String)}
+     * for such a name, typically for short-lived channels such as per-request
+     * child loggers. Backends may create cheaper delegate loggers here, for
+     * instance that are not registered for level changes. Defaults to
+     * {@link #newDelegateLogger(String)}.
+     */
+    protected DelegateLogger newUncachedDelegateLogger(final String name)
+    {
+        return newDelegateLogger(name);
+    }
 
     public DelegateLogger getDelegateLogger(final Class<?> forClass)
     {
@@ -16,13 +16,19 @@
 package org.trancecode.logging.spi;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.trancecode.base.Preconditions;
+import org.trancecode.base.Supplier;
 import org.trancecode.base.TcArrays;
 import org.trancecode.logging.formatter.ArgumentFormatter;
 import org.trancecode.logging.macro.MacroRenderer;
@@ -34,11 +40,31 @@ import org.trancecode.logging.macro.MacroRenderer;
  */
 public final class Loggers
 {
-    private static final Iterable<ArgumentFormatter> ARGUMENT_FORMATTERS = ServiceLoader.load(ArgumentFormatter.class);
+    private static final ArgumentFormatter[] ARGUMENT_FORMATTERS;
+    private static final int ARGUMENT_FORMATTER_CACHE_SIZE = 1024;
+    private static final Map<Class<?>, ConcurrentMap<String, ArgumentFormatter>> ARGUMENT_FORMATTERS_BY_CLASS;
+    private static final ArgumentFormatter UNSUPPORTED_ARGUMENT_FORMATTER = new ArgumentFormatter()
+    {
+        @Override
+        public Object formatArgument(final Object argument, final String method)
+        {
+            return null;
+        }
+    };
     private static final Map<String, MacroRenderer> MACRO_RENDERERS;
+    private static final int MESSAGE_TEMPLATE_CACHE_SIZE = 4096;
+    private static final ConcurrentMap<String, MessageTemplate> MESSAGE_TEMPLATES;
 
     static
     {
+        final List<ArgumentFormatter> argumentFormatters = new ArrayList<ArgumentFormatter>();
+        for (final ArgumentFormatter argumentFormatter : ServiceLoader.load(ArgumentFormatter.class))
+        {
+            argumentFormatters.add(argumentFormatter);
+        }
+        ARGUMENT_FORMATTERS = argumentFormatters.toArray(new ArgumentFormatter[argumentFormatters.size()]);
+        ARGUMENT_FORMATTERS_BY_CLASS = new WeakHashMap<Class<?>, ConcurrentMap<String, ArgumentFormatter>>();
+
         final Map<String, MacroRenderer> macroRenderers = new HashMap<String, MacroRenderer>();
         for (final MacroRenderer renderer : ServiceLoader.load(MacroRenderer.class))
         {
@@ -47,6 +73,7 @@ public final class Loggers
             macroRenderers.put(renderer.name(), renderer);
         }
         MACRO_RENDERERS = Collections.unmodifiableMap(macroRenderers);
+        MESSAGE_TEMPLATES = new ConcurrentHashMap<String, MessageTemplate>();
     }
 
     private Loggers()
@@ -111,42 +138,52 @@ public final class Loggers
             return message;
         }
 
-        final StringBuilder formattedMessage = new StringBuilder();
-        int alreadyProcessed = 0;
-        int argumentRank = 0;
-        for (int i = 0; i < message.length(); i++)
+        return getMessageTemplate(message).format(args);
+    }
+
+    /**
+     * Returns the parsed form of the specified message.
+     * <p>
+     * Templates are cached so that a given message is only parsed once. The
+     * cache is bounded: once it is full, messages that are not already cached
+     * are parsed on each call rather than evicting the templates in use.
+     * 
+     * @see MessageTemplate
+     */
+    public static MessageTemplate getMessageTemplate(final String message)
+    {
+        final MessageTemplate cachedTemplate = MESSAGE_TEMPLATES.get(message);
+        if (cachedTemplate != null)
         {
-            final int open = message.indexOf('{', alreadyProcessed);
-            if (open < 0)
-            {
-                formattedMessage.append(message.substring(alreadyProcessed));
-                return formattedMessage;
-            }
+            return cachedTemplate;
+        }
 
-            if (open > 0 && message.charAt(open - 1) == '\\')
+        final MessageTemplate template = MessageTemplate.parse(message);
+        if (MESSAGE_TEMPLATES.size() < MESSAGE_TEMPLATE_CACHE_SIZE)
+        {
+            final MessageTemplate previousTemplate = MESSAGE_TEMPLATES.putIfAbsent(message, template);
+            if (previousTemplate != null)
             {
-                formattedMessage.append(message.substring(alreadyProcessed, open - 1)).append('{');
-                alreadyProcessed = open + 1;
-                continue;
+                return previousTemplate;
             }
+        }
 
-            final int close = message.indexOf('}', open);
-            Preconditions.checkArgument(close >= 0, "message is missing closing brace: %s", message);
-            final String method = message.substring(open + 1, close);
-            formattedMessage.append(message.substring(alreadyProcessed, open));
-            if (method.startsWith("@"))
-            {
-                formattedMessage.append(formatMacro(method));
-            }
-            else
-            {
-                formattedMessage.append(formatArgument(args[argumentRank], method));
-                argumentRank++;
-            }
-            alreadyProcessed = close + 1;
+        return template;
+    }
+
+    /**
+     * Returns the specified delegate logger as a
+     * {@link RenderingDelegateLogger}, adapting it if it does not render
+     * messages itself.
+     */
+    public static RenderingDelegateLogger getRenderingDelegateLogger(final DelegateLogger delegateLogger)
+    {
+        if (delegateLogger instanceof RenderingDelegateLogger)
+        {
+            return (RenderingDelegateLogger) delegateLogger;
         }
 
-        return formattedMessage;
+        return new RenderingDelegateLoggerAdapter(delegateLogger);
     }
 
     private static Object formatArray(final Object[] array)
@@ -176,7 +213,12 @@ public final class Loggers
      * {@link Method}.
      * <p>
      * All registered {@link ArgumentFormatter} instances are queried until one
-     * of them supports the argument class and specified method.
+     * of them supports the argument class and specified method. The formatter
+     * found, or the absence of any, is then remembered for that class and
+     * method.
+     * <p>
+     * A {@link Supplier} argument is replaced by the value it supplies, which
+     * is thus only computed when the argument is actually rendered.
      * 
      * @see ArgumentFormatter
      */
@@ -184,6 +226,11 @@ public final class Loggers
     {
         Preconditions.checkNotNull(method);
 
+        if (argument instanceof Supplier)
+        {
+            return formatArgument(((Supplier<?>) argument).get(), method);
+        }
+
         if (argument == null)
         {
             return "null";
@@ -199,16 +246,69 @@ public final class Loggers
             return argument;
         }
 
+        final ConcurrentMap<String, ArgumentFormatter> argumentFormatters = getArgumentFormatters(argument.getClass());
+        final ArgumentFormatter cachedArgumentFormatter = argumentFormatters.get(method);
+        if (cachedArgumentFormatter == UNSUPPORTED_ARGUMENT_FORMATTER)
+        {
+            throw unsupportedArgument(argument, method);
+        }
+        if (cachedArgumentFormatter != null)
+        {
+            final Object formattedArgument = cachedArgumentFormatter.formatArgument(argument, method);
+            if (formattedArgument != null)
+            {
+                return formattedArgument;
+            }
+        }
+
         for (final ArgumentFormatter argumentFormatter : ARGUMENT_FORMATTERS)
         {
             final Object formattedArgument = argumentFormatter.formatArgument(argument, method);
             if (formattedArgument != null)
             {
+                argumentFormatters.putIfAbsent(method, argumentFormatter);
                 return formattedArgument;
             }
         }
-        throw new UnsupportedOperationException("class = " + argument.getClass() + " ; method = " + method
-                + "\nformatters = " + ARGUMENT_FORMATTERS);
+        argumentFormatters.putIfAbsent(method, UNSUPPORTED_ARGUMENT_FORMATTER);
+        throw unsupportedArgument(argument, method);
+    }
+
+    /**
+     * Returns the formatters resolved so far for the specified argument class,
+     * indexed by method.
+     * <p>
+     * Classes are referenced weakly so that the cache does not prevent the
+     * class loader of an undeployed application from being collected. Once the
+     * cache is full, a new empty index is returned for classes that are not
+     * already cached so that formatters are looked up on each call.
+     */
+    private static ConcurrentMap<String, ArgumentFormatter> getArgumentFormatters(final Class<?> argumentClass)
+    {
+        synchronized (ARGUMENT_FORMATTERS_BY_CLASS)
+        {
+            final ConcurrentMap<String, ArgumentFormatter> cachedArgumentFormatters = ARGUMENT_FORMATTERS_BY_CLASS
+                    .get(argumentClass);
+            if (cachedArgumentFormatters != null)
+            {
+                return cachedArgumentFormatters;
+            }
+
+            final ConcurrentMap<String, ArgumentFormatter> argumentFormatters;
+            argumentFormatters = new ConcurrentHashMap<String, ArgumentFormatter>();
+            if (ARGUMENT_FORMATTERS_BY_CLASS.size() < ARGUMENT_FORMATTER_CACHE_SIZE)
+            {
+                ARGUMENT_FORMATTERS_BY_CLASS.put(argumentClass, argumentFormatters);
+            }
+
+            return argumentFormatters;
+        }
+    }
+
+    private static UnsupportedOperationException unsupportedArgument(final Object argument, final String method)
+    {
+        return new UnsupportedOperationException("class = " + argument.getClass() + " ; method = " + method
+                + "\nformatters = " + Arrays.toString(ARGUMENT_FORMATTERS));
     }
 
     /**
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+/**
+ * Per-thread buffers into which logging backends render their messages, so
+ * that logging a message does not allocate a new buffer each time.
+ * 
+ * @author Herve Quiroz
+ * @see MessageTemplate#appendTo(StringBuilder, Object...)
+ */
+public final class MessageBuffers
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+    };
+
+    private MessageBuffers()
+    {
+        // No instantiation
+    }
+
+    /**
+     * Returns the empty buffer of the current thread, which must be passed
+     * back to {@link #release(StringBuilder)} once the message is processed.
+     * <p>
+     * The buffer is taken out of the thread-local while in use in case an
+     * argument logs something itself when formatted, which then gets a new
+     * buffer.
+     */
+    public static StringBuilder acquire()
+    {
+        final StringBuilder buffer = BUFFER.get();
+        BUFFER.set(null);
+        if (buffer == null)
+        {
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Gives back a buffer obtained from {@link #acquire()}. Buffers that grew
+     * too large for a rare huge message are left to the garbage collector.
+     */
+    public static void release(final StringBuilder buffer)
+    {
+        if (buffer.capacity() <= MAX_RETAINED_CAPACITY)
+        {
+            BUFFER.set(buffer);
+        }
+    }
+
+    /**
+     * Renders the template using the passed arguments into a new string.
+     */
+    public static String render(final MessageTemplate template, final Object... args)
+    {
+        if (template.isConstant())
+        {
+            return template.literal(0);
+        }
+
+        final StringBuilder buffer = acquire();
+        try
+        {
+            return template.appendTo(buffer, args).toString();
+        }
+        finally
+        {
+            release(buffer);
+        }
+    }
+}
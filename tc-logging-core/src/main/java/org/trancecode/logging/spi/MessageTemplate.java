@@ -0,0 +1,252 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * A log message parsed once into literal segments and place-holders.
+ * <p>
+ * Instances are immutable and may be shared between threads. They are
+ * normally obtained through {@link Loggers#getMessageTemplate(String)} which
+ * keeps them in a bounded cache keyed by the message.
+ * 
+ * @author Herve Quiroz
+ * @see Loggers#formatMessage(String, Object...)
+ */
+public final class MessageTemplate
+{
+    private static final int PLACEHOLDER_LENGTH_HINT = 16;
+
+    private final String message;
+    private final String[] literals;
+    private final String[] methods;
+    private final boolean[] macros;
+    private final boolean[] plainArguments;
+    private final int argumentCount;
+    private final int lengthHint;
+
+    /**
+     * Parses the specified message.
+     * <p>
+     * Unlike {@link Loggers#getMessageTemplate(String)} the result is not
+     * cached.
+     */
+    public static MessageTemplate parse(final String message)
+    {
+        Preconditions.checkNotNull(message);
+
+        final List<String> literals = new ArrayList<String>();
+        final List<String> methods = new ArrayList<String>();
+        final StringBuilder literal = new StringBuilder();
+        int alreadyProcessed = 0;
+        while (true)
+        {
+            final int open = message.indexOf('{', alreadyProcessed);
+            if (open < 0)
+            {
+                literal.append(message, alreadyProcessed, message.length());
+                break;
+            }
+
+            if (open > 0 && message.charAt(open - 1) == '\\')
+            {
+                literal.append(message, alreadyProcessed, open - 1).append('{');
+                alreadyProcessed = open + 1;
+                continue;
+            }
+
+            final int close = message.indexOf('}', open);
+            Preconditions.checkArgument(close >= 0, "message is missing closing brace: %s", message);
+            literal.append(message, alreadyProcessed, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            methods.add(message.substring(open + 1, close));
+            alreadyProcessed = close + 1;
+        }
+        literals.add(literal.toString());
+
+        return new MessageTemplate(message, literals.toArray(new String[literals.size()]), methods
+                .toArray(new String[methods.size()]));
+    }
+
+    private MessageTemplate(final String message, final String[] literals, final String[] methods)
+    {
+        assert literals.length == methods.length + 1;
+        this.message = message;
+        this.literals = literals;
+        this.methods = methods;
+        this.macros = new boolean[methods.length];
+
+        int argumentCount = 0;
+        int lengthHint = 0;
+        final boolean[] plainArguments = new boolean[methods.length];
+        for (int i = 0; i < methods.length; i++)
+        {
+            macros[i] = methods[i].startsWith("@");
+            if (!macros[i])
+            {
+                plainArguments[argumentCount] = methods[i].isEmpty();
+                argumentCount++;
+            }
+            lengthHint += literals[i].length() + PLACEHOLDER_LENGTH_HINT;
+        }
+        this.argumentCount = argumentCount;
+        this.plainArguments = plainArguments;
+        this.lengthHint = lengthHint + literals[methods.length].length();
+    }
+
+    /**
+     * Returns the message this template was parsed from.
+     */
+    public String message()
+    {
+        return message;
+    }
+
+    /**
+     * Returns the number of place-holders, including macros.
+     */
+    public int placeholderCount()
+    {
+        return methods.length;
+    }
+
+    /**
+     * Returns the number of arguments consumed by this template, that is the
+     * number of place-holders that are not macros.
+     */
+    public int argumentCount()
+    {
+        return argumentCount;
+    }
+
+    /**
+     * Returns the literal text that precedes the place-holder at the specified
+     * index, or the trailing text if {@code index} equals
+     * {@link #placeholderCount()}.
+     */
+    public String literal(final int index)
+    {
+        return literals[index];
+    }
+
+    /**
+     * Returns the formatting method of the place-holder at the specified
+     * index, that is the text between the curly braces.
+     */
+    public String method(final int index)
+    {
+        return methods[index];
+    }
+
+    /**
+     * Returns {@code true} if the place-holder at the specified index is a
+     * macro rather than an argument.
+     */
+    public boolean isMacro(final int index)
+    {
+        return macros[index];
+    }
+
+    /**
+     * Returns {@code true} if the argument of the specified rank is rendered
+     * as is, that is with a <code>{}</code> place-holder that has no
+     * formatting method.
+     */
+    public boolean isPlainArgument(final int argumentRank)
+    {
+        return argumentRank < argumentCount && plainArguments[argumentRank];
+    }
+
+    /**
+     * Returns {@code true} if this template contains no place-holder, in which
+     * case the formatted message is the message itself.
+     */
+    public boolean isConstant()
+    {
+        return methods.length == 0;
+    }
+
+    /**
+     * Renders this template using the passed arguments.
+     */
+    public Object format(final Object... args)
+    {
+        if (isConstant())
+        {
+            return literals[0];
+        }
+
+        return appendTo(new StringBuilder(lengthHint), args);
+    }
+
+    /**
+     * Renders this template using the passed arguments into the specified
+     * buffer.
+     */
+    public StringBuilder appendTo(final StringBuilder buffer, final Object... args)
+    {
+        try
+        {
+            appendTo((Appendable) buffer, args);
+            return buffer;
+        }
+        catch (final IOException e)
+        {
+            // A StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Renders this template using the passed arguments into the specified
+     * character sequence, such as a buffer owned by the logging backend.
+     */
+    public <A extends Appendable> A appendTo(final A destination, final Object... args) throws IOException
+    {
+        int argumentRank = 0;
+        for (int i = 0; i < methods.length; i++)
+        {
+            destination.append(literals[i]);
+            final Object formatted;
+            if (macros[i])
+            {
+                formatted = Loggers.formatMacro(methods[i]);
+            }
+            else
+            {
+                formatted = Loggers.formatArgument(args[argumentRank], methods[i]);
+                argumentRank++;
+            }
+            destination.append(formatted instanceof CharSequence ? (CharSequence) formatted : String
+                    .valueOf(formatted));
+        }
+        destination.append(literals[methods.length]);
+
+        return destination;
+    }
+
+    @Override
+    public String toString()
+    {
+        return message;
+    }
+}
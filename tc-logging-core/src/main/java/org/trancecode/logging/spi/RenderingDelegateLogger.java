@@ -0,0 +1,43 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+/**
+ * A {@link DelegateLogger} that renders log messages itself, typically into a
+ * buffer it owns, rather than receiving an already formatted message.
+ * <p>
+ * Service providers may implement this interface to avoid intermediate copies
+ * of the formatted message. Other {@link DelegateLogger} implementations are
+ * adapted by {@link Loggers#getRenderingDelegateLogger(DelegateLogger)}.
+ * 
+ * @author Herve Quiroz
+ * @see MessageTemplate#appendTo(Appendable, Object...)
+ */
+public interface RenderingDelegateLogger extends DelegateLogger
+{
+    /**
+     * Logs a message through the underlying logger or logging channel for the
+     * specified level.
+     * <p>
+     * The message is rendered from the template and arguments only once the
+     * implementation has a buffer to render it into.
+     * <p>
+     * An argument may be a character sequence that the caller reuses once this
+     * method returns, so that implementations that render the message later
+     * must take a snapshot of such arguments.
+     */
+    void log(LoggerLevel level, MessageTemplate template, Object[] args);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * Adapts a plain {@link DelegateLogger} to {@link RenderingDelegateLogger} by
+ * formatting the message before passing it on.
+ * 
+ * @author Herve Quiroz
+ */
+final class RenderingDelegateLoggerAdapter implements RenderingDelegateLogger
+{
+    private final DelegateLogger delegateLogger;
+
+    public RenderingDelegateLoggerAdapter(final DelegateLogger delegateLogger)
+    {
+        this.delegateLogger = Preconditions.checkNotNull(delegateLogger);
+    }
+
+    @Override
+    public void log(final LoggerLevel level, final MessageTemplate template, final Object[] args)
+    {
+        delegateLogger.log(level, template.format(args));
+    }
+
+    @Override
+    public String loggerName()
+    {
+        return delegateLogger.loggerName();
+    }
+
+    @Override
+    public boolean isLevelEnabled(final LoggerLevel level)
+    {
+        return delegateLogger.isLevelEnabled(level);
+    }
+
+    @Override
+    public void log(final LoggerLevel level, final Object message)
+    {
+        delegateLogger.log(level, message);
+    }
+
+    @Override
+    public DelegateLogger getChild(final String childName)
+    {
+        return delegateLogger.getChild(childName);
+    }
+
+    @Override
+    public void error(final Throwable t)
+    {
+        delegateLogger.error(t);
+    }
+}
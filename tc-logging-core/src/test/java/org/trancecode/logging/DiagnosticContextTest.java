@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link DiagnosticContext}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class DiagnosticContextTest
+{
+    @Test
+    public void withValue()
+    {
+        final DiagnosticContext a = DiagnosticContext.EMPTY.withValue("a", "1");
+        final DiagnosticContext ab = a.withValue("b", "2");
+        Assert.assertEquals(a.toString(), "[a=1]");
+        Assert.assertEquals(ab.toString(), "[a=1, b=2]");
+        Assert.assertEquals(ab.withValue("a", "3").toString(), "[a=3, b=2]");
+        Assert.assertEquals(ab.withValue("a", null).toString(), "[b=2]");
+        Assert.assertEquals(ab.value("b"), "2");
+        Assert.assertNull(ab.value("c"));
+        Assert.assertSame(ab.withValue("a", "1"), ab);
+        Assert.assertSame(ab.withValue("c", null), ab);
+        Assert.assertSame(a.withValue("a", null), DiagnosticContext.EMPTY);
+        Assert.assertEquals(ab.toMap().toString(), "{a=1, b=2}");
+        Assert.assertEquals(DiagnosticContext.EMPTY.toString(), "[]");
+    }
+
+    @Test
+    public void currentThread()
+    {
+        Assert.assertSame(DiagnosticContext.current(), DiagnosticContext.EMPTY);
+        DiagnosticContext.put("request", "12");
+        try
+        {
+            final DiagnosticContext snapshot = DiagnosticContext.current();
+            DiagnosticContext.put("user", "bob");
+            Assert.assertEquals(DiagnosticContext.get("user"), "bob");
+            Assert.assertEquals(snapshot.toString(), "[request=12]");
+            DiagnosticContext.remove("user");
+            Assert.assertEquals(DiagnosticContext.current().toString(), "[request=12]");
+        }
+        finally
+        {
+            DiagnosticContext.clear();
+        }
+        Assert.assertSame(DiagnosticContext.current(), DiagnosticContext.EMPTY);
+    }
+
+    @Test
+    public void propagate() throws Exception
+    {
+        final Callable<DiagnosticContext> getContext = new Callable<DiagnosticContext>()
+        {
+            @Override
+            public DiagnosticContext call()
+            {
+                return DiagnosticContext.current();
+            }
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Assert.assertSame(DiagnosticContext.propagate(getContext), getContext);
+
+            final Future<DiagnosticContext> propagated;
+            DiagnosticContext.put("request", "12");
+            try
+            {
+                propagated = executor.submit(DiagnosticContext.propagate(getContext));
+            }
+            finally
+            {
+                DiagnosticContext.clear();
+            }
+            Assert.assertEquals(propagated.get().toString(), "[request=12]");
+            Assert.assertSame(executor.submit(getContext).get(), DiagnosticContext.EMPTY);
+        }
+        finally
+        {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LevelOverride}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LevelOverrideTest
+{
+    @Test
+    public void setAndRestore()
+    {
+        Assert.assertNull(LevelOverride.get());
+        Assert.assertFalse(LevelOverride.isEnabled(LoggerLevel.FATAL));
+
+        final LevelOverride debug = LevelOverride.set(LoggerLevel.DEBUG);
+        Assert.assertTrue(LevelOverride.isEnabled(LoggerLevel.DEBUG));
+        Assert.assertFalse(LevelOverride.isEnabled(LoggerLevel.TRACE));
+
+        final LevelOverride trace = LevelOverride.set(LoggerLevel.TRACE);
+        Assert.assertTrue(LevelOverride.isEnabled(LoggerLevel.TRACE));
+        trace.restore();
+        trace.restore();
+        Assert.assertEquals(LevelOverride.get(), LoggerLevel.DEBUG);
+
+        debug.restore();
+        Assert.assertNull(LevelOverride.get());
+        Assert.assertFalse(LevelOverride.isEnabled(LoggerLevel.DEBUG));
+    }
+
+    @Test
+    public void propagate() throws Exception
+    {
+        final Callable<LoggerLevel> getLevel = new Callable<LoggerLevel>()
+        {
+            @Override
+            public LoggerLevel call()
+            {
+                return LevelOverride.get();
+            }
+        };
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final Callable<LoggerLevel> unchanged = LevelOverride.propagate(getLevel);
+            Assert.assertSame(unchanged, getLevel);
+
+            final Future<LoggerLevel> propagated;
+            final LevelOverride override = LevelOverride.set(LoggerLevel.TRACE);
+            try
+            {
+                propagated = executor.submit(LevelOverride.propagate(getLevel));
+            }
+            finally
+            {
+                override.restore();
+            }
+            Assert.assertEquals(propagated.get(), LoggerLevel.TRACE);
+            Assert.assertNull(executor.submit(getLevel).get());
+        }
+        finally
+        {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Runs a thread that dies with an override, and keeps no reference to it.
+     */
+    private static void runThreadWithoutRestoring() throws InterruptedException
+    {
+        final Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                LevelOverride.set(LoggerLevel.TRACE);
+            }
+        };
+        thread.start();
+        thread.join();
+    }
+
+    @Test
+    public void deadThread() throws Exception
+    {
+        final int activeOverrides = LevelOverride.activeOverrides();
+        runThreadWithoutRestoring();
+        Assert.assertEquals(LevelOverride.activeOverrides(), activeOverrides + 1);
+
+        // Dead threads are removed once collected, when an override changes
+        for (int i = 0; i < 50 && LevelOverride.activeOverrides() > activeOverrides; i++)
+        {
+            System.gc();
+            Thread.sleep(10);
+            LevelOverride.set(LoggerLevel.DEBUG).restore();
+        }
+        Assert.assertEquals(LevelOverride.activeOverrides(), activeOverrides);
+    }
+}
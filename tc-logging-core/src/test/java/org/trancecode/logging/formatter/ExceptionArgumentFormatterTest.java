@@ -33,5 +33,9 @@ public final class ExceptionArgumentFormatterTest
         Assert
                 .assertEquals(Loggers.formatArgument(new Exception("some message"), "message").toString(),
                         "some message");
+        Assert.assertEquals(Loggers.formatArgument(new Exception(), "message").toString(), "null");
+        Assert
+                .assertEquals(Loggers.formatArgument(new Exception("other message"), "message").toString(),
+                        "other message");
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link CallerLocator}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class CallerLocatorTest
+{
+    private static final class Boundary
+    {
+        public static StackTraceElement getCaller()
+        {
+            return CallerLocator.getCaller(Boundary.class);
+        }
+    }
+
+    @Test
+    public void getCaller()
+    {
+        final StackTraceElement caller = Boundary.getCaller();
+        Assert.assertEquals(caller.getClassName(), CallerLocatorTest.class.getName());
+        Assert.assertEquals(caller.getMethodName(), "getCaller");
+    }
+
+    @Test
+    public void getCallerWithoutBoundary()
+    {
+        final StackTraceElement caller = CallerLocator.getCaller(Boundary.class);
+        Assert.assertEquals(caller.getMethodName(), "getCallerWithoutBoundary");
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link LevelsFileWatcher}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LevelsFileWatcherTest
+{
+    private static void write(final File file, final String content) throws IOException
+    {
+        final OutputStream output = new FileOutputStream(file);
+        try
+        {
+            output.write(content.getBytes("ISO-8859-1"));
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    @Test
+    public void parseLevels()
+    {
+        final Properties properties = new Properties();
+        properties.setProperty("logging.level", "WARN");
+        properties.setProperty("logging.level.com.foo", "debug ");
+        properties.setProperty("other.property", "x");
+        final Map<String, LoggerLevel> levels = LevelsFileWatcher.parseLevels(properties, "logging.level.");
+        Assert.assertEquals(levels.size(), 1);
+        Assert.assertEquals(levels.get("com.foo"), LoggerLevel.DEBUG);
+    }
+
+    @Test
+    public void readMissingFile() throws Exception
+    {
+        final File file = new File(System.getProperty("java.io.tmpdir"), "levels-" + System.nanoTime()
+                + ".properties");
+        Assert.assertTrue(LevelsFileWatcher.readLevels(file).isEmpty());
+    }
+
+    @Test
+    public void watch() throws Exception
+    {
+        final File file = File.createTempFile("levels", ".properties");
+        write(file, "com.foo=DEBUG\n");
+        Assert.assertEquals(LevelsFileWatcher.readLevels(file).toString(), "{com.foo=DEBUG}");
+
+        final BlockingQueue<Object> changes = new LinkedBlockingQueue<Object>();
+        final Thread thread = new LevelsFileWatcher(file, 10)
+        {
+            @Override
+            protected void levelsChanged(final Map<String, LoggerLevel> levels)
+            {
+                changes.add(levels);
+            }
+
+            @Override
+            protected void error(final Exception e)
+            {
+                changes.add(e);
+            }
+        }.start("levels");
+        try
+        {
+            write(file, "com.foo=WARN\ncom.bar=TRACE\n");
+            final Map<?, ?> levels = (Map<?, ?>) changes.poll(5, TimeUnit.SECONDS);
+            Assert.assertEquals(levels.size(), 2);
+            Assert.assertEquals(levels.get("com.foo"), LoggerLevel.WARN);
+            Assert.assertEquals(levels.get("com.bar"), LoggerLevel.TRACE);
+
+            // The previous levels are kept when the file is invalid
+            write(file, "com.foo=NOPE\n");
+            Assert.assertTrue(changes.poll(5, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+
+            Assert.assertTrue(file.delete());
+            Assert.assertEquals(changes.poll(5, TimeUnit.SECONDS).toString(), "{}");
+        }
+        finally
+        {
+            thread.interrupt();
+            file.delete();
+        }
+    }
+}
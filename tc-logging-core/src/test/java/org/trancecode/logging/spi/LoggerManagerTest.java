@@ -0,0 +1,134 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link LoggerManager}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LoggerManagerTest
+{
+    private static final class TestDelegateLogger implements DelegateLogger
+    {
+        private final String name;
+        private final boolean cached;
+
+        public TestDelegateLogger(final String name, final boolean cached)
+        {
+            this.name = name;
+            this.cached = cached;
+        }
+
+        @Override
+        public String loggerName()
+        {
+            return name;
+        }
+
+        @Override
+        public boolean isLevelEnabled(final LoggerLevel level)
+        {
+            return false;
+        }
+
+        @Override
+        public void log(final LoggerLevel level, final Object message)
+        {
+            // Discarded
+        }
+
+        @Override
+        public DelegateLogger getChild(final String childName)
+        {
+            return new TestDelegateLogger(name + "." + childName, false);
+        }
+
+        @Override
+        public void error(final Throwable t)
+        {
+            // Discarded
+        }
+    }
+
+    private static final class TestLoggerManager extends LoggerManager
+    {
+        private final AtomicInteger uncachedDelegateLoggers = new AtomicInteger();
+
+        @Override
+        protected DelegateLogger newDelegateLogger(final String name)
+        {
+            return new TestDelegateLogger(name, true);
+        }
+
+        @Override
+        protected DelegateLogger newUncachedDelegateLogger(final String name)
+        {
+            uncachedDelegateLoggers.incrementAndGet();
+            return new TestDelegateLogger(name, false);
+        }
+    }
+
+    /**
+     * Implementation written against the original contract.
+     */
+    private static final class LegacyLoggerManager extends LoggerManager
+    {
+        @Override
+        public DelegateLogger getDelegateLogger(final String name)
+        {
+            return new TestDelegateLogger(name, false);
+        }
+    }
+
+    @Test
+    public void getDelegateLogger()
+    {
+        final TestLoggerManager loggerManager = new TestLoggerManager();
+        final DelegateLogger delegateLogger = loggerManager.getDelegateLogger("a.b");
+        Assert.assertSame(loggerManager.getDelegateLogger("a.b"), delegateLogger);
+        Assert.assertTrue(((TestDelegateLogger) delegateLogger).cached);
+    }
+
+    @Test
+    public void fullCache()
+    {
+        final TestLoggerManager loggerManager = new TestLoggerManager();
+        for (int i = 0; loggerManager.uncachedDelegateLoggers.get() == 0; i++)
+        {
+            loggerManager.getDelegateLogger("logger" + i);
+        }
+
+        final DelegateLogger delegateLogger = loggerManager.getDelegateLogger("uncached");
+        Assert.assertFalse(((TestDelegateLogger) delegateLogger).cached);
+        Assert.assertEquals(delegateLogger.loggerName(), "uncached");
+        Assert.assertTrue(((TestDelegateLogger) loggerManager.getDelegateLogger("logger0")).cached);
+    }
+
+    @Test
+    public void legacyImplementation()
+    {
+        final LoggerManager loggerManager = new LegacyLoggerManager();
+        Assert.assertEquals(loggerManager.getDelegateLogger(LoggerManagerTest.class).loggerName(),
+                LoggerManagerTest.class.getName());
+    }
+}
@@ -15,11 +15,18 @@
  */
 package org.trancecode.logging.spi;
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.trancecode.base.Supplier;
 
 /**
  * Tests for {@link Loggers}.
@@ -56,6 +63,104 @@ public final class LoggersTest
         Assert.assertEquals(Loggers.formatMessage("a \\{} c", "b").toString(), "a {} c");
     }
 
+    @Test
+    public void formatSupplierArgument()
+    {
+        final int[] calls = new int[1];
+        final Supplier<Collection<String>> supplier = new Supplier<Collection<String>>()
+        {
+            @Override
+            public Collection<String> get()
+            {
+                calls[0]++;
+                return Arrays.asList("a", "b");
+            }
+        };
+
+        Assert.assertEquals(Loggers.formatMessage("constant", supplier).toString(), "constant");
+        Assert.assertEquals(calls[0], 0);
+        Assert.assertEquals(Loggers.formatMessage("{} {size}", supplier, supplier).toString(), "[a, b] 2");
+        Assert.assertEquals(calls[0], 2);
+        Assert.assertEquals(Loggers.formatArgument(new Supplier<Object>()
+        {
+            @Override
+            public Object get()
+            {
+                return null;
+            }
+        }, ""), "null");
+    }
+
+    @Test
+    public void formatArgumentUnsupported()
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                Loggers.formatArgument(new Object(), "unsupported");
+                Assert.fail();
+            }
+            catch (final UnsupportedOperationException e)
+            {
+                // Expected, including once the miss is cached
+            }
+        }
+    }
+
+    @Test
+    public void formatArgumentDoesNotRetainClass() throws Exception
+    {
+        final WeakReference<Class<?>> argumentClass = formatArgumentFromThrowawayClassLoader();
+        final List<byte[]> garbage = new ArrayList<byte[]>();
+        for (int i = 0; i < 100 && argumentClass.get() != null; i++)
+        {
+            garbage.add(new byte[1024 * 1024]);
+            if (garbage.size() > 16)
+            {
+                garbage.clear();
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(argumentClass.get());
+    }
+
+    private static WeakReference<Class<?>> formatArgumentFromThrowawayClassLoader() throws Exception
+    {
+        final URL location = LoggersTest.class.getProtectionDomain().getCodeSource().getLocation();
+        final URLClassLoader classLoader = new URLClassLoader(new URL[] { location }, null);
+        final Class<?> argumentClass = classLoader.loadClass(EmptyList.class.getName());
+        Assert.assertNotSame(argumentClass, EmptyList.class);
+        final Object argument = argumentClass.newInstance();
+        Assert.assertEquals(Loggers.formatArgument(argument, "size"), 0);
+        try
+        {
+            Loggers.formatArgument(argument, "unsupported");
+            Assert.fail();
+        }
+        catch (final UnsupportedOperationException e)
+        {
+            // Expected, the miss is cached as well
+        }
+        return new WeakReference<Class<?>>(argumentClass);
+    }
+
+    public static final class EmptyList extends AbstractList<Object>
+    {
+        @Override
+        public Object get(final int index)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        public int size()
+        {
+            return 0;
+        }
+    }
+
     @Test
     public void performanceForEmptyMessage()
     {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link MessageBuffers}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class MessageBuffersTest
+{
+    @Test
+    public void render()
+    {
+        Assert.assertEquals(MessageBuffers.render(MessageTemplate.parse("a {} c"), "b"), "a b c");
+        Assert.assertEquals(MessageBuffers.render(MessageTemplate.parse("constant")), "constant");
+    }
+
+    @Test
+    public void renderEscapedBrace()
+    {
+        Assert.assertEquals(MessageBuffers.render(MessageTemplate.parse("brace: \\{")), "brace: {");
+        Assert.assertEquals(MessageBuffers.render(MessageTemplate.parse("\\{} {}"), "a"), "{} a");
+    }
+
+    @Test
+    public void reuse()
+    {
+        final StringBuilder buffer = MessageBuffers.acquire();
+        buffer.append("dirty");
+        MessageBuffers.release(buffer);
+        final StringBuilder reused = MessageBuffers.acquire();
+        Assert.assertSame(reused, buffer);
+        Assert.assertEquals(reused.length(), 0);
+        MessageBuffers.release(reused);
+    }
+
+    @Test
+    public void reentrant()
+    {
+        final StringBuilder buffer = MessageBuffers.acquire();
+        try
+        {
+            // For instance an argument that logs something when formatted
+            Assert.assertNotSame(MessageBuffers.acquire(), buffer);
+        }
+        finally
+        {
+            MessageBuffers.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.spi;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link MessageTemplate}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class MessageTemplateTest
+{
+    @Test
+    public void parse()
+    {
+        final MessageTemplate template = MessageTemplate.parse("a {} b {size} c {@method} d");
+        Assert.assertEquals(template.placeholderCount(), 3);
+        Assert.assertEquals(template.argumentCount(), 2);
+        Assert.assertEquals(template.literal(0), "a ");
+        Assert.assertEquals(template.literal(3), " d");
+        Assert.assertEquals(template.method(0), "");
+        Assert.assertEquals(template.method(1), "size");
+        Assert.assertEquals(template.method(2), "@method");
+        Assert.assertFalse(template.isMacro(1));
+        Assert.assertTrue(template.isMacro(2));
+    }
+
+    @Test
+    public void parseConstant()
+    {
+        final MessageTemplate template = MessageTemplate.parse("a \\{} c");
+        Assert.assertTrue(template.isConstant());
+        Assert.assertEquals(template.format().toString(), "a {} c");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parseMissingClosingBrace()
+    {
+        MessageTemplate.parse("a { c");
+    }
+
+    @Test
+    public void appendTo() throws Exception
+    {
+        final StringWriter writer = new StringWriter();
+        MessageTemplate.parse("a {} c {size}").appendTo(writer, "b", Arrays.asList(1, 2));
+        Assert.assertEquals(writer.toString(), "a b c 2");
+    }
+
+    @Test
+    public void getMessageTemplate()
+    {
+        Assert.assertSame(Loggers.getMessageTemplate("a {} c"), Loggers.getMessageTemplate("a {} c"));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.decoder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+
+import org.trancecode.base.Longs;
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.simple.BinaryLogReader;
+import org.trancecode.logging.simple.LogEntry;
+
+/**
+ * Renders binary log files written by the simple backend in its text format:
+ * <p>
+ * <code>
+ * java org.trancecode.logging.decoder.LogDecoder file.bin [file.bin.gz ...]
+ * </code>
+ * <p>
+ * Files are read from the standard input if no file is specified or if a file
+ * name is <code>-</code>.
+ * 
+ * @author Herve Quiroz
+ */
+public final class LogDecoder
+{
+    private static final String LINE_DELIMITER = "::";
+    private static final String STANDARD_INPUT = "-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private final PrintStream destination;
+
+    public LogDecoder(final PrintStream destination)
+    {
+        this.destination = Preconditions.checkNotNull(destination);
+    }
+
+    public static void main(final String[] args) throws IOException
+    {
+        final PrintStream destination = new PrintStream(new BufferedOutputStream(System.out, BUFFER_SIZE), false);
+        final LogDecoder decoder = new LogDecoder(destination);
+        try
+        {
+            if (args.length == 0)
+            {
+                decoder.decode(System.in);
+            }
+            for (final String fileName : args)
+            {
+                if (fileName.equals(STANDARD_INPUT))
+                {
+                    decoder.decode(System.in);
+                }
+                else
+                {
+                    decoder.decode(new File(fileName));
+                }
+            }
+        }
+        finally
+        {
+            destination.flush();
+        }
+    }
+
+    /**
+     * Decodes the specified file, which may be compressed with gzip.
+     */
+    public void decode(final File file) throws IOException
+    {
+        final InputStream input = new FileInputStream(file);
+        try
+        {
+            if (file.getName().endsWith(".gz"))
+            {
+                decode(new GZIPInputStream(input, BUFFER_SIZE));
+            }
+            else
+            {
+                decode(input);
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    public void decode(final InputStream input) throws IOException
+    {
+        final BinaryLogReader reader = new BinaryLogReader(new BufferedInputStream(input, BUFFER_SIZE));
+        for (LogEntry entry = reader.next(); entry != null; entry = reader.next())
+        {
+            destination.print(format(entry));
+        }
+    }
+
+    /**
+     * Returns the lines of the specified event, with the same prefix for each
+     * line of the message.
+     */
+    public String format(final LogEntry entry)
+    {
+        final StringBuilder linePrefix = new StringBuilder();
+        linePrefix.append(Longs.toHexString(entry.eventId()));
+        linePrefix.append(LINE_DELIMITER);
+        linePrefix.append(entry.level().toRightPaddedString(5, " "));
+        linePrefix.append(LINE_DELIMITER);
+        linePrefix.append(dateFormat.format(new Date(entry.time())));
+        linePrefix.append(LINE_DELIMITER);
+        linePrefix.append(entry.loggerName());
+        linePrefix.append(LINE_DELIMITER);
+
+        final StringBuilder lines = new StringBuilder();
+        for (final String line : entry.message().split("\n"))
+        {
+            // Empty lines are skipped as in text log files
+            if (!line.isEmpty())
+            {
+                lines.append(linePrefix).append(line).append(System.getProperty("line.separator"));
+            }
+        }
+        return lines.toString();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.decoder;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.simple.LogEntry;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LogDecoder}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LogDecoderTest
+{
+    @Test
+    public void format()
+    {
+        final long time = 1286208123456L;
+        final String prefix = "000000000000002a::WARN ::"
+                + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(time)) + "::org.example.Test::";
+        final String lineSeparator = System.getProperty("line.separator");
+        final LogEntry entry = new LogEntry(42, LoggerLevel.WARN, time, "org.example.Test", "first\n\nsecond");
+        Assert.assertEquals(new LogDecoder(System.out).format(entry), prefix + "first" + lineSeparator + prefix
+                + "second" + lineSeparator);
+    }
+}
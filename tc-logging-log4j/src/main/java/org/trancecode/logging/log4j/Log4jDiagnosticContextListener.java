@@ -0,0 +1,50 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.log4j;
+
+import org.apache.log4j.MDC;
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.DiagnosticContextListener;
+
+/**
+ * Mirrors the {@link DiagnosticContext} of each thread in the log4j
+ * {@link MDC}, so that log4j layouts can render it with the <code>%X</code>
+ * pattern.
+ * 
+ * @author Herve Quiroz
+ */
+public final class Log4jDiagnosticContextListener implements DiagnosticContextListener
+{
+    @Override
+    public void contextChanged(final DiagnosticContext previousContext, final DiagnosticContext context)
+    {
+        for (int i = 0; i < previousContext.size(); i++)
+        {
+            if (context.value(previousContext.key(i)) == null)
+            {
+                MDC.remove(previousContext.key(i));
+            }
+        }
+        for (int i = 0; i < context.size(); i++)
+        {
+            if (!context.value(i).equals(previousContext.value(context.key(i))))
+            {
+                // log4j 1.2 only has MDC.put(String, Object)
+                MDC.put(context.key(i), (Object) context.value(i));
+            }
+        }
+    }
+}
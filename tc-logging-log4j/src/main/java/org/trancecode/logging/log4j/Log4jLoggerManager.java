@@ -15,23 +15,50 @@
  */
 package org.trancecode.logging.log4j;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
 import org.trancecode.base.Preconditions;
 import org.trancecode.logging.spi.DelegateLogger;
+import org.trancecode.logging.spi.LevelsFileWatcher;
 import org.trancecode.logging.spi.LoggerLevel;
 import org.trancecode.logging.spi.LoggerManager;
+import org.trancecode.logging.spi.MessageBuffers;
+import org.trancecode.logging.spi.MessageTemplate;
+import org.trancecode.logging.spi.RenderingDelegateLogger;
 
 /**
  * @author Herve Quiroz
  */
 public final class Log4jLoggerManager extends LoggerManager
 {
+    public static final String PROPERTY_LEVELS_FILE = "logging.levels.file";
+    public static final String PROPERTY_LEVELS_FILE_INTERVAL = "logging.levels.file.interval";
+
+    /**
+     * Whether the facade may cache the enabled levels of the log4j loggers.
+     * <p>
+     * This is disabled by default because log4j levels may be changed through
+     * the log4j API, which tc-logging cannot detect. Applications that enable
+     * it must invoke {@link LoggerManager#levelsChanged()} after changing log4j
+     * levels or configuration themselves. The levels file is handled
+     * automatically.
+     */
+    public static final String PROPERTY_LEVELS_CACHED = "logging.levels.cached";
+
     private static final Map<LoggerLevel, Level> LEVELS;
+    private static final long DEFAULT_LEVELS_FILE_INTERVAL = 5000;
+    private static final boolean LEVELS_CACHED = Boolean.getBoolean(PROPERTY_LEVELS_CACHED);
+    private static final String FACADE_CLASS_NAME = org.trancecode.logging.Logger.class.getName();
+
+    private static Set<String> fileLoggerNames = Collections.emptySet();
 
     static
     {
@@ -43,10 +70,71 @@ public final class Log4jLoggerManager extends LoggerManager
         levels.put(LoggerLevel.ERROR, Level.ERROR);
         levels.put(LoggerLevel.FATAL, Level.FATAL);
         LEVELS = Collections.unmodifiableMap(levels);
+
+        final String levelsFilePath = System.getProperty(PROPERTY_LEVELS_FILE);
+        if (levelsFilePath != null)
+        {
+            final File levelsFile = new File(levelsFilePath);
+            final long levelsFileInterval = Long.getLong(PROPERTY_LEVELS_FILE_INTERVAL, DEFAULT_LEVELS_FILE_INTERVAL);
+            LevelsFileWatcher levelsFileWatcher = null;
+            if (levelsFileInterval > 0)
+            {
+                // Created before the file is read so that no change is missed
+                levelsFileWatcher = new LevelsFileWatcher(levelsFile, levelsFileInterval)
+                {
+                    @Override
+                    protected void levelsChanged(final Map<String, LoggerLevel> levels)
+                    {
+                        setFileLevels(levels);
+                    }
+                };
+            }
+            try
+            {
+                setFileLevels(LevelsFileWatcher.readLevels(levelsFile));
+            }
+            catch (final Exception e)
+            {
+                // Reported as by the watcher, the levels are applied once the
+                // file is fixed
+                e.printStackTrace();
+            }
+            if (levelsFileWatcher != null)
+            {
+                levelsFileWatcher.start(Log4jLoggerManager.class.getSimpleName() + ".levels");
+            }
+        }
+    }
+
+    /**
+     * Sets the levels of the levels file on the log4j loggers. The loggers
+     * that are no longer in the file inherit their level again.
+     */
+    private static synchronized void setFileLevels(final Map<String, LoggerLevel> levels)
+    {
+        for (final String loggerName : fileLoggerNames)
+        {
+            if (!levels.containsKey(loggerName))
+            {
+                Logger.getLogger(loggerName).setLevel(null);
+            }
+        }
+        for (final Map.Entry<String, LoggerLevel> level : levels.entrySet())
+        {
+            Logger.getLogger(level.getKey()).setLevel(getLevel(level.getValue()));
+        }
+        fileLoggerNames = new HashSet<String>(levels.keySet());
+        levelsChanged();
+    }
+
+    @Override
+    public boolean isLevelCachingSupported()
+    {
+        return LEVELS_CACHED;
     }
 
     @Override
-    public DelegateLogger getDelegateLogger(final String name)
+    protected DelegateLogger newDelegateLogger(final String name)
     {
         return new Log4jDelegateLogger(name, Logger.getLogger(name));
     }
@@ -56,7 +144,7 @@ public final class Log4jLoggerManager extends LoggerManager
         return LEVELS.get(Preconditions.checkNotNull(level));
     }
 
-    private static final class Log4jDelegateLogger implements DelegateLogger
+    private final class Log4jDelegateLogger implements RenderingDelegateLogger
     {
         private final String name;
         private final Logger logger;
@@ -73,7 +161,7 @@ public final class Log4jLoggerManager extends LoggerManager
             Preconditions.checkNotNull(childName);
             Preconditions.checkArgument(!childName.isEmpty(), "child logger name is empty");
             final String childFullName = name + "." + childName;
-            return new Log4jDelegateLogger(childFullName, Logger.getLogger(childFullName));
+            return getDelegateLogger(childFullName);
         }
 
         @Override
@@ -85,7 +173,28 @@ public final class Log4jLoggerManager extends LoggerManager
         @Override
         public void log(final LoggerLevel level, final Object message)
         {
-            logger.log(getLevel(level), message);
+            log(getLevel(level), message);
+        }
+
+        @Override
+        public void log(final LoggerLevel level, final MessageTemplate template, final Object[] args)
+        {
+            // Passing a String spares log4j the lookup of an ObjectRenderer
+            log(getLevel(level), MessageBuffers.render(template, args));
+        }
+
+        private void log(final Level level, final Object message)
+        {
+            if (logger.isEnabledFor(level))
+            {
+                logger.log(level, message);
+            }
+            else
+            {
+                // The level is enabled by a thread level override, which log4j
+                // would not let through
+                logger.callAppenders(new LoggingEvent(FACADE_CLASS_NAME, logger, level, message, null));
+            }
         }
 
         @Override
@@ -48,6 +48,16 @@ public final class Log4jLoggerManagerTest
         Logger.getLogger(Log4jLoggerManagerTest.class);
     }
 
+    @Test
+    public void getLoggerReturnsSameInstance()
+    {
+        final Logger logger = Logger.getLogger(Log4jLoggerManagerTest.class);
+        Assert.assertSame(Logger.getLogger(Log4jLoggerManagerTest.class), logger);
+        Assert.assertSame(Logger.getLogger(Log4jLoggerManagerTest.class.getName()), logger);
+        Assert.assertSame(logger.getChildLogger("child"), logger.getChildLogger("child"));
+        Assert.assertSame(logger.getChildLogger("child"), Logger.getLogger(logger.name() + ".child"));
+    }
+
     @Test
     public void log()
     {
@@ -25,12 +25,18 @@ import org.trancecode.logging.spi.LoggerManager;
 public final class NullLoggerManager extends LoggerManager
 {
     @Override
-    public DelegateLogger getDelegateLogger(final String name)
+    public boolean isLevelCachingSupported()
+    {
+        return true;
+    }
+
+    @Override
+    protected DelegateLogger newDelegateLogger(final String name)
     {
         return new NullDelegateLogger(name);
     }
 
-    private static final class NullDelegateLogger implements DelegateLogger
+    private final class NullDelegateLogger implements DelegateLogger
     {
         private final String name;
 
@@ -48,7 +54,7 @@ public final class NullLoggerManager extends LoggerManager
         @Override
         public void log(final LoggerLevel level, final Object message)
         {
-            throw new IllegalStateException();
+            // Only reached for levels enabled by a thread level override
         }
 
         @Override
@@ -60,7 +66,7 @@ public final class NullLoggerManager extends LoggerManager
         @Override
         public DelegateLogger getChild(final String childName)
         {
-            return new NullDelegateLogger(name + "." + childName);
+            return getDelegateLogger(name + "." + childName);
         }
 
         @Override
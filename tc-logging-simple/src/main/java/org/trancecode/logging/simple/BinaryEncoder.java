@@ -0,0 +1,169 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.trancecode.logging.DiagnosticContext;
+
+/**
+ * Encodes log events as records of the binary log format.
+ * <p>
+ * Templates and logger names are given an id the first time they are seen in
+ * a file, and their definition is written before the event that uses them.
+ * Dictionaries are bounded: past {@link #MAX_DICTIONARY_SIZE} entries, new
+ * templates or logger names are defined again each time they are used.
+ * <p>
+ * Instances are not thread-safe and are meant to be used by the output thread
+ * only.
+ * 
+ * @author Herve Quiroz
+ * @see BinaryLogFormat
+ */
+final class BinaryEncoder
+{
+    private static final int MAX_DICTIONARY_SIZE = 64 * 1024;
+
+    private final BinaryOutput output = new BinaryOutput();
+    private final BinaryOutput payload = new BinaryOutput();
+    private final Map<String, Integer> templateIds = new HashMap<String, Integer>();
+    private final Map<String, Integer> loggerIds = new HashMap<String, Integer>();
+    private int nextId;
+    private DiagnosticContext context = DiagnosticContext.EMPTY;
+
+    /**
+     * Returns the bytes encoded since the last {@link #reset()}.
+     */
+    byte[] array()
+    {
+        return output.array();
+    }
+
+    /**
+     * Returns the number of bytes encoded since the last {@link #reset()}.
+     */
+    int length()
+    {
+        return output.length();
+    }
+
+    /**
+     * Discards the encoded bytes.
+     */
+    void reset()
+    {
+        output.reset();
+    }
+
+    /**
+     * Appends the file header and forgets the dictionaries of the previous
+     * file.
+     */
+    void startFile()
+    {
+        templateIds.clear();
+        loggerIds.clear();
+        context = DiagnosticContext.EMPTY;
+        nextId = BinaryLogFormat.RAW_MESSAGE_TEMPLATE_ID + 1;
+        output.write(BinaryLogFormat.MAGIC, 0, BinaryLogFormat.MAGIC.length);
+        output.writeByte(BinaryLogFormat.VERSION);
+    }
+
+    /**
+     * Appends the record of the specified event, preceded by the definitions
+     * it refers to if they are new in the current file and by its diagnostic
+     * context if it differs from the one of the previous event.
+     */
+    void encode(final long eventId, final LogEvent event)
+    {
+        final int templateId;
+        if (event.template == null)
+        {
+            templateId = BinaryLogFormat.RAW_MESSAGE_TEMPLATE_ID;
+        }
+        else
+        {
+            templateId = getId(templateIds, BinaryLogFormat.TEMPLATE_DEFINITION, event.template.message());
+        }
+        final int loggerId = getId(loggerIds, BinaryLogFormat.LOGGER_DEFINITION, event.loggerName);
+        if (event.context != context)
+        {
+            writeContext(event.context);
+        }
+
+        payload.reset();
+        payload.writeVarLong(eventId);
+        payload.writeByte(event.level.ordinal());
+        payload.writeLong(event.time);
+        payload.writeVarLong(templateId);
+        payload.writeVarLong(loggerId);
+        if (event.template == null)
+        {
+            payload.writeValue(event.message);
+        }
+        else
+        {
+            payload.write(event.values.array(), 0, event.values.length());
+        }
+        writeRecord(BinaryLogFormat.EVENT);
+    }
+
+    /**
+     * Contexts are compared by reference, which is enough to skip the context
+     * record for consecutive events of a same thread.
+     */
+    private void writeContext(final DiagnosticContext context)
+    {
+        this.context = context;
+        payload.reset();
+        payload.writeVarLong(context.size());
+        for (int i = 0; i < context.size(); i++)
+        {
+            payload.writeString(context.key(i));
+            payload.writeString(context.value(i));
+        }
+        writeRecord(BinaryLogFormat.CONTEXT);
+    }
+
+    private int getId(final Map<String, Integer> ids, final int definitionType, final String value)
+    {
+        final Integer cachedId = ids.get(value);
+        if (cachedId != null)
+        {
+            return cachedId;
+        }
+
+        final int id = nextId++;
+        if (ids.size() < MAX_DICTIONARY_SIZE)
+        {
+            ids.put(value, id);
+        }
+
+        payload.reset();
+        payload.writeVarLong(id);
+        payload.writeString(value);
+        writeRecord(definitionType);
+        return id;
+    }
+
+    private void writeRecord(final int type)
+    {
+        output.writeByte(type);
+        output.writeVarLong(payload.length());
+        output.write(payload.array(), 0, payload.length());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.nio.ByteBuffer;
+
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * Reads the primitives written by {@link BinaryOutput} from a buffer.
+ * 
+ * @author Herve Quiroz
+ */
+final class BinaryInput
+{
+    private ByteBuffer buffer;
+
+    BinaryInput(final ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    ByteBuffer buffer()
+    {
+        return buffer;
+    }
+
+    void setBuffer(final ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    int readByte()
+    {
+        return buffer.get() & 0xFF;
+    }
+
+    long readVarLong()
+    {
+        long value = 0;
+        for (int shift = 0;; shift += 7)
+        {
+            final int b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+    }
+
+    int readInt()
+    {
+        return buffer.getInt();
+    }
+
+    long readLong()
+    {
+        return buffer.getLong();
+    }
+
+    String readString()
+    {
+        final int encodedLength = (int) readVarLong();
+        final int end = buffer.position() + encodedLength;
+        final StringBuilder string = new StringBuilder(encodedLength);
+        while (buffer.position() < end)
+        {
+            final int b = readByte();
+            if (b < 0x80)
+            {
+                string.append((char) b);
+            }
+            else if (b < 0xE0)
+            {
+                string.append((char) (((b & 0x1F) << 6) | (readByte() & 0x3F)));
+            }
+            else
+            {
+                final int b2 = readByte();
+                string.append((char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (readByte() & 0x3F)));
+            }
+        }
+        return string.toString();
+    }
+
+    Object readValue()
+    {
+        final int type = readByte();
+        switch (type)
+        {
+        case BinaryLogFormat.NULL_VALUE:
+            return null;
+        case BinaryLogFormat.STRING_VALUE:
+            return readString();
+        case BinaryLogFormat.INT_VALUE:
+            return readInt();
+        case BinaryLogFormat.LONG_VALUE:
+            return readLong();
+        case BinaryLogFormat.DOUBLE_VALUE:
+            return Double.longBitsToDouble(readLong());
+        case BinaryLogFormat.FLOAT_VALUE:
+            return Float.intBitsToFloat(readInt());
+        case BinaryLogFormat.BOOLEAN_VALUE:
+            return readByte() != 0;
+        case BinaryLogFormat.CHAR_VALUE:
+            return (char) readVarLong();
+        case BinaryLogFormat.SHORT_VALUE:
+            return (short) readInt();
+        case BinaryLogFormat.BYTE_VALUE:
+            return (byte) readByte();
+        default:
+            throw new IllegalStateException("unknown value type: " + type);
+        }
+    }
+
+    /**
+     * Renders the specified template with the place-holder values read from
+     * the buffer.
+     */
+    StringBuilder appendMessage(final StringBuilder message, final MessageTemplate template)
+    {
+        for (int i = 0; i < template.placeholderCount(); i++)
+        {
+            message.append(template.literal(i));
+            message.append(readValue());
+        }
+        return message.append(template.literal(template.placeholderCount()));
+    }
+}
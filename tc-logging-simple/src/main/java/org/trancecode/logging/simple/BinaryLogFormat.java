@@ -0,0 +1,71 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+/**
+ * Constants of the binary log file format.
+ * <p>
+ * A file starts with {@link #MAGIC} and {@link #VERSION}, followed by records.
+ * Each record is a type byte, the length of its payload as a variable-length
+ * integer and the payload itself, so that readers may skip records they do
+ * not know about:
+ * <ul>
+ * <li>{@link #TEMPLATE_DEFINITION}: template id, message;</li>
+ * <li>{@link #LOGGER_DEFINITION}: logger id, logger name;</li>
+ * <li>{@link #EVENT}: event id, level ordinal, time, template id, logger id
+ * and one value per place-holder of the template;</li>
+ * <li>{@link #CONTEXT}: number of entries, then the key and the value of each
+ * entry.</li>
+ * </ul>
+ * Templates and logger names are defined once per file, before the first
+ * event that refers to them. The template {@link #RAW_MESSAGE_TEMPLATE_ID} is
+ * implicit and stands for a message that was not parsed, which is stored as a
+ * single value. A diagnostic context applies to the events that follow it,
+ * until the next context. There is none at the start of a file.
+ * 
+ * @author Herve Quiroz
+ * @see BinaryEncoder
+ * @see BinaryLogReader
+ */
+final class BinaryLogFormat
+{
+    static final byte[] MAGIC = { 't', 'c', 'l', 'b' };
+    static final int VERSION = 1;
+
+    static final int TEMPLATE_DEFINITION = 1;
+    static final int LOGGER_DEFINITION = 2;
+    static final int EVENT = 3;
+    static final int CONTEXT = 4;
+
+    static final int RAW_MESSAGE_TEMPLATE_ID = 0;
+    static final String RAW_MESSAGE_TEMPLATE = "{}";
+
+    static final int NULL_VALUE = 0;
+    static final int STRING_VALUE = 1;
+    static final int INT_VALUE = 2;
+    static final int LONG_VALUE = 3;
+    static final int DOUBLE_VALUE = 4;
+    static final int FLOAT_VALUE = 5;
+    static final int BOOLEAN_VALUE = 6;
+    static final int CHAR_VALUE = 7;
+    static final int SHORT_VALUE = 8;
+    static final int BYTE_VALUE = 9;
+
+    private BinaryLogFormat()
+    {
+        // No instantiation
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.LoggerLevel;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * Reads the events of a log file written by {@link SimpleLoggerManager} with
+ * {@link OutputFormat#BINARY}.
+ * 
+ * @author Herve Quiroz
+ */
+public final class BinaryLogReader implements Closeable
+{
+    private static final LoggerLevel[] LEVELS = LoggerLevel.values();
+
+    private final InputStream input;
+    private final Map<Long, MessageTemplate> templates = new HashMap<Long, MessageTemplate>();
+    private final Map<Long, String> loggerNames = new HashMap<Long, String>();
+    private final BinaryInput record = new BinaryInput(ByteBuffer.allocate(0));
+    private byte[] recordBytes = new byte[256];
+    private DiagnosticContext context = DiagnosticContext.EMPTY;
+
+    /**
+     * Reads the header of the file from the specified stream, which should be
+     * buffered.
+     */
+    public BinaryLogReader(final InputStream input) throws IOException
+    {
+        this.input = Preconditions.checkNotNull(input);
+        final byte[] magic = new byte[BinaryLogFormat.MAGIC.length];
+        readFully(magic, magic.length);
+        if (!Arrays.equals(magic, BinaryLogFormat.MAGIC))
+        {
+            throw new IOException("not a binary log file");
+        }
+        final int version = input.read();
+        if (version != BinaryLogFormat.VERSION)
+        {
+            throw new IOException("unsupported version: " + version);
+        }
+        templates.put((long) BinaryLogFormat.RAW_MESSAGE_TEMPLATE_ID, MessageTemplate
+                .parse(BinaryLogFormat.RAW_MESSAGE_TEMPLATE));
+    }
+
+    private void readFully(final byte[] bytes, final int length) throws IOException
+    {
+        int offset = 0;
+        while (offset < length)
+        {
+            final int count = input.read(bytes, offset, length - offset);
+            if (count < 0)
+            {
+                throw new EOFException();
+            }
+            offset += count;
+        }
+    }
+
+    private long readVarLong() throws IOException
+    {
+        long value = 0;
+        for (int shift = 0;; shift += 7)
+        {
+            final int b = input.read();
+            if (b < 0)
+            {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns the next event, or {@code null} at the end of the file.
+     */
+    public LogEntry next() throws IOException
+    {
+        while (true)
+        {
+            final int type = input.read();
+            if (type < 0)
+            {
+                return null;
+            }
+
+            final int length = (int) readVarLong();
+            if (recordBytes.length < length)
+            {
+                recordBytes = new byte[Math.max(length, recordBytes.length * 2)];
+            }
+            readFully(recordBytes, length);
+            record.setBuffer(ByteBuffer.wrap(recordBytes, 0, length));
+
+            final LogEntry entry = readRecord(type);
+            if (entry != null)
+            {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Reads a record from the current buffer and returns the event it holds,
+     * if any.
+     */
+    private LogEntry readRecord(final int type) throws IOException
+    {
+        switch (type)
+        {
+        case BinaryLogFormat.TEMPLATE_DEFINITION:
+            templates.put(record.readVarLong(), MessageTemplate.parse(record.readString()));
+            return null;
+        case BinaryLogFormat.LOGGER_DEFINITION:
+            loggerNames.put(record.readVarLong(), record.readString());
+            return null;
+        case BinaryLogFormat.EVENT:
+            final long eventId = record.readVarLong();
+            final LoggerLevel level = LEVELS[record.readByte()];
+            final long time = record.readLong();
+            final MessageTemplate template = templates.get(record.readVarLong());
+            final String loggerName = loggerNames.get(record.readVarLong());
+            if (template == null || loggerName == null)
+            {
+                throw new IOException("undefined template or logger for event " + eventId);
+            }
+            // The context is rendered as in the text format
+            final StringBuilder message = new StringBuilder();
+            if (!context.isEmpty())
+            {
+                context.appendTo(message).append(' ');
+            }
+            return new LogEntry(eventId, level, time, loggerName, record.appendMessage(message, template).toString());
+        case BinaryLogFormat.CONTEXT:
+            final int size = (int) record.readVarLong();
+            DiagnosticContext newContext = DiagnosticContext.EMPTY;
+            for (int i = 0; i < size; i++)
+            {
+                newContext = newContext.withValue(record.readString(), record.readString());
+            }
+            context = newContext;
+            return null;
+        default:
+            // Unknown record
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        input.close();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Arrays;
+
+import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * A growable byte buffer with the primitives of the binary log format.
+ * <p>
+ * Strings are written as their length in bytes followed by each
+ * {@code char} encoded like UTF-8, surrogates included, so that they can be
+ * written without any intermediate allocation.
+ * 
+ * @author Herve Quiroz
+ * @see BinaryInput
+ */
+final class BinaryOutput
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    byte[] array()
+    {
+        return bytes;
+    }
+
+    int length()
+    {
+        return length;
+    }
+
+    void reset()
+    {
+        length = 0;
+        if (bytes.length > MAX_RETAINED_CAPACITY)
+        {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    private void ensureCapacity(final int extraLength)
+    {
+        if (length + extraLength > bytes.length)
+        {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extraLength));
+        }
+    }
+
+    void writeByte(final int value)
+    {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    void write(final byte[] source, final int offset, final int sourceLength)
+    {
+        ensureCapacity(sourceLength);
+        System.arraycopy(source, offset, bytes, length, sourceLength);
+        length += sourceLength;
+    }
+
+    /**
+     * Writes a non-negative value using 7 bits per byte.
+     */
+    void writeVarLong(final long value)
+    {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0)
+        {
+            bytes[length++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[length++] = (byte) remaining;
+    }
+
+    /**
+     * Returns the number of bytes used by {@link #writeVarLong(long)} for the
+     * specified value.
+     */
+    static int varLongLength(final long value)
+    {
+        int varLongLength = 1;
+        for (long remaining = value >>> 7; remaining != 0; remaining >>>= 7)
+        {
+            varLongLength++;
+        }
+        return varLongLength;
+    }
+
+    void writeInt(final int value)
+    {
+        ensureCapacity(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    void writeLong(final long value)
+    {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    void writeString(final CharSequence string)
+    {
+        final int stringLength = string.length();
+        int encodedLength = 0;
+        for (int i = 0; i < stringLength; i++)
+        {
+            final char c = string.charAt(i);
+            encodedLength += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+
+        writeVarLong(encodedLength);
+        ensureCapacity(encodedLength);
+        for (int i = 0; i < stringLength; i++)
+        {
+            final char c = string.charAt(i);
+            if (c < 0x80)
+            {
+                bytes[length++] = (byte) c;
+            }
+            else if (c < 0x800)
+            {
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else
+            {
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Writes a value preceded by its type. Primitive wrappers are written as
+     * is and other objects as their string representation.
+     */
+    void writeValue(final Object value)
+    {
+        if (value == null)
+        {
+            writeByte(BinaryLogFormat.NULL_VALUE);
+        }
+        else if (value instanceof Integer)
+        {
+            writeByte(BinaryLogFormat.INT_VALUE);
+            writeInt((Integer) value);
+        }
+        else if (value instanceof Long)
+        {
+            writeByte(BinaryLogFormat.LONG_VALUE);
+            writeLong((Long) value);
+        }
+        else if (value instanceof Double)
+        {
+            writeByte(BinaryLogFormat.DOUBLE_VALUE);
+            writeLong(Double.doubleToRawLongBits((Double) value));
+        }
+        else if (value instanceof Float)
+        {
+            writeByte(BinaryLogFormat.FLOAT_VALUE);
+            writeInt(Float.floatToRawIntBits((Float) value));
+        }
+        else if (value instanceof Boolean)
+        {
+            writeByte(BinaryLogFormat.BOOLEAN_VALUE);
+            writeByte((Boolean) value ? 1 : 0);
+        }
+        else if (value instanceof Character)
+        {
+            writeByte(BinaryLogFormat.CHAR_VALUE);
+            writeVarLong((Character) value);
+        }
+        else if (value instanceof Short)
+        {
+            writeByte(BinaryLogFormat.SHORT_VALUE);
+            writeInt((Short) value);
+        }
+        else if (value instanceof Byte)
+        {
+            writeByte(BinaryLogFormat.BYTE_VALUE);
+            writeByte((Byte) value);
+        }
+        else
+        {
+            writeByte(BinaryLogFormat.STRING_VALUE);
+            writeString(value instanceof CharSequence ? (CharSequence) value : value.toString());
+        }
+    }
+
+    /**
+     * Writes the value of each place-holder of the specified template, that is
+     * the formatted argument or the rendered macro.
+     */
+    void writePlaceholderValues(final MessageTemplate template, final Object[] args)
+    {
+        int argumentRank = 0;
+        for (int i = 0; i < template.placeholderCount(); i++)
+        {
+            if (template.isMacro(i))
+            {
+                writeValue(Loggers.formatMacro(template.method(i)));
+            }
+            else
+            {
+                writeValue(Loggers.formatArgument(args[argumentRank], template.method(i)));
+                argumentRank++;
+            }
+        }
+    }
+}
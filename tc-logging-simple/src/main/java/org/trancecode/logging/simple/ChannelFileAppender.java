@@ -0,0 +1,115 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Appends encoded lines to a log file with {@link FileChannel} writes.
+ * <p>
+ * Lines are accumulated in a direct buffer and only written to the channel
+ * when the buffer is full or when the appender is flushed, typically once per
+ * batch of events, so that a whole batch costs a single system call.
+ * 
+ * @author Herve Quiroz
+ * @see OutputMode#CHANNEL
+ */
+final class ChannelFileAppender extends FileAppender
+{
+    private final FileOutputStream output;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private boolean unsynced;
+
+    ChannelFileAppender(final File file, final int bufferSize) throws IOException
+    {
+        super(file);
+        this.output = new FileOutputStream(file, true);
+        this.channel = output.getChannel();
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0)
+        {
+            if (!buffer.hasRemaining())
+            {
+                writeBuffer();
+            }
+            final int chunk = Math.min(remaining, buffer.remaining());
+            buffer.put(bytes, position, chunk);
+            position += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private void writeBuffer() throws IOException
+    {
+        buffer.flip();
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+        finally
+        {
+            buffer.clear();
+        }
+        unsynced = true;
+    }
+
+    @Override
+    void flushBuffer() throws IOException
+    {
+        if (buffer.position() > 0)
+        {
+            writeBuffer();
+        }
+    }
+
+    @Override
+    void force() throws IOException
+    {
+        if (unsynced)
+        {
+            channel.force(false);
+            unsynced = false;
+        }
+    }
+
+    @Override
+    void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+}
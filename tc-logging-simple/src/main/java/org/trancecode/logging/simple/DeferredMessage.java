@@ -0,0 +1,90 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * Renders messages on the output thread from the values of their
+ * place-holders captured by the logging thread.
+ * <p>
+ * Macros and formatting methods are applied when the values are captured, as
+ * they depend on the logging thread or on the current state of the argument.
+ * Strings and boxed primitives are then kept as is, while the other values
+ * are converted to strings right away on the logging thread.
+ * 
+ * @author Herve Quiroz
+ */
+final class DeferredMessage
+{
+    private DeferredMessage()
+    {
+        // No instantiation
+    }
+
+    /**
+     * Returns {@code true} if the specified value is a string or a boxed
+     * primitive. Those classes are final and part of the JDK, so that their
+     * string representation cannot change and rendering them on the output
+     * thread runs no application code, unlike an enum or a number class that
+     * may be subclassed.
+     */
+    static boolean isImmutable(final Object value)
+    {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Boolean || value instanceof Character || value instanceof Double
+                || value instanceof Float || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * Captures the value of each place-holder of the specified template into
+     * {@code values}, which must hold at least
+     * {@link MessageTemplate#placeholderCount()} elements.
+     */
+    static void capture(final MessageTemplate template, final Object[] args, final Object[] values)
+    {
+        int argumentRank = 0;
+        for (int i = 0; i < template.placeholderCount(); i++)
+        {
+            final Object value;
+            if (template.isMacro(i))
+            {
+                value = Loggers.formatMacro(template.method(i));
+            }
+            else
+            {
+                value = Loggers.formatArgument(args[argumentRank], template.method(i));
+                argumentRank++;
+            }
+            values[i] = isImmutable(value) ? value : String.valueOf(value);
+        }
+    }
+
+    /**
+     * Renders the specified template with the captured values of its
+     * place-holders.
+     */
+    static StringBuilder render(final StringBuilder buffer, final MessageTemplate template, final Object[] values)
+    {
+        for (int i = 0; i < template.placeholderCount(); i++)
+        {
+            buffer.append(template.literal(i));
+            buffer.append(values[i]);
+        }
+        return buffer.append(template.literal(template.placeholderCount()));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Appends encoded lines to a log file.
+ * <p>
+ * Instances are not thread-safe and are meant to be used by the output thread
+ * only.
+ * 
+ * @author Herve Quiroz
+ * @see OutputMode
+ * @see FlushPolicy
+ */
+abstract class FileAppender
+{
+    private final File file;
+    private long lastFlushTime = System.nanoTime();
+    private long lastSyncTime = lastFlushTime;
+    private LatencyHistogram flushLatencies;
+    private LatencyHistogram syncLatencies;
+
+    FileAppender(final File file)
+    {
+        this.file = file;
+    }
+
+    File file()
+    {
+        return file;
+    }
+
+    /**
+     * Records the durations of the next flushes and synchronizations in the
+     * specified histograms.
+     */
+    void setLatencyHistograms(final LatencyHistogram flushLatencies, final LatencyHistogram syncLatencies)
+    {
+        this.flushLatencies = flushLatencies;
+        this.syncLatencies = syncLatencies;
+    }
+
+    /**
+     * Appends the specified bytes.
+     */
+    abstract void write(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Hands the bytes appended so far over to the operating system.
+     */
+    abstract void flushBuffer() throws IOException;
+
+    /**
+     * Forces the bytes handed over to the operating system to the storage
+     * device.
+     */
+    abstract void force() throws IOException;
+
+    /**
+     * Flushes the appended bytes and releases the file.
+     */
+    abstract void close() throws IOException;
+
+    /**
+     * Writes the appended bytes to the file.
+     */
+    final void flush() throws IOException
+    {
+        final long startTime = System.nanoTime();
+        flushBuffer();
+        lastFlushTime = System.nanoTime();
+        if (flushLatencies != null)
+        {
+            flushLatencies.record(lastFlushTime - startTime);
+        }
+    }
+
+    /**
+     * Forces the appended bytes to the storage device.
+     */
+    final void sync() throws IOException
+    {
+        flush();
+        final long startTime = System.nanoTime();
+        force();
+        lastSyncTime = System.nanoTime();
+        if (syncLatencies != null)
+        {
+            syncLatencies.record(lastSyncTime - startTime);
+        }
+    }
+
+    final long nanosSinceFlush()
+    {
+        return System.nanoTime() - lastFlushTime;
+    }
+
+    final long nanosSinceSync()
+    {
+        return System.nanoTime() - lastSyncTime;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.IOException;
+
+/**
+ * When the output thread of {@link SimpleLoggerManager} writes buffered lines
+ * to the log file.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_FLUSH_POLICY
+ * @see SimpleLoggerManager#PROPERTY_FLUSH_INTERVAL
+ */
+public enum FlushPolicy
+{
+    /**
+     * Writes the lines once per batch of events drained from the output
+     * buffer.
+     */
+    BATCH
+    {
+        @Override
+        void commit(final FileAppender appender, final long intervalNanos) throws IOException
+        {
+            appender.flush();
+        }
+    },
+
+    /**
+     * Writes the lines at most once per flush interval, or when the file
+     * buffer is full. Lines may be lost if the process crashes.
+     */
+    INTERVAL
+    {
+        @Override
+        void commit(final FileAppender appender, final long intervalNanos) throws IOException
+        {
+            if (appender.nanosSinceFlush() >= intervalNanos)
+            {
+                appender.flush();
+            }
+        }
+    },
+
+    /**
+     * Writes the lines once per batch and forces them to the storage device
+     * at most once per flush interval, so that lines survive a system crash.
+     */
+    FSYNC
+    {
+        @Override
+        void commit(final FileAppender appender, final long intervalNanos) throws IOException
+        {
+            if (appender.nanosSinceSync() >= intervalNanos)
+            {
+                appender.sync();
+            }
+            else
+            {
+                appender.flush();
+            }
+        }
+    };
+
+    /**
+     * Invoked by the output thread at the end of each batch of events and
+     * when it is idle.
+     */
+    abstract void commit(FileAppender appender, long intervalNanos) throws IOException;
+}
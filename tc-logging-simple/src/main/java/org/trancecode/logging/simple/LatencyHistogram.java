@@ -0,0 +1,64 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds, with one bucket per power of two.
+ * <p>
+ * Durations are recorded by a single thread while the counts may be read from
+ * any thread.
+ * 
+ * @author Herve Quiroz
+ */
+final class LatencyHistogram
+{
+    private final AtomicLongArray counts = new AtomicLongArray(Long.SIZE);
+
+    /**
+     * Records the specified duration. Must only be called from a single
+     * thread.
+     */
+    void record(final long nanos)
+    {
+        final int bucket = Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+        if (bucket < Long.SIZE)
+        {
+            counts.lazySet(bucket, counts.get(bucket) + 1);
+        }
+    }
+
+    /**
+     * Returns the number of durations recorded in each non-empty bucket,
+     * indexed by the exclusive upper bound of the bucket in nanoseconds.
+     */
+    Map<Long, Long> counts()
+    {
+        final Map<Long, Long> counts = new TreeMap<Long, Long>();
+        for (int bucket = 0; bucket < Long.SIZE - 1; bucket++)
+        {
+            final long count = this.counts.get(bucket);
+            if (count > 0)
+            {
+                counts.put(1L << bucket, count);
+            }
+        }
+        return counts;
+    }
+}
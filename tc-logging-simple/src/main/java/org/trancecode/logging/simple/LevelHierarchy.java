@@ -0,0 +1,111 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Immutable levels of a logger hierarchy: a root level and levels set for
+ * logger name prefixes.
+ * <p>
+ * A prefix applies to the logger with that name and to its descendants, so
+ * that <code>com.foo</code> applies to <code>com.foo.bar</code> but not to
+ * <code>com.foobar</code>. The longest matching prefix wins.
+ * 
+ * @author Herve Quiroz
+ */
+final class LevelHierarchy
+{
+    private final LoggerLevel rootLevel;
+    private final Map<String, LoggerLevel> levels;
+
+    LevelHierarchy(final LoggerLevel rootLevel, final Map<String, LoggerLevel> levels)
+    {
+        this.rootLevel = Preconditions.checkNotNull(rootLevel);
+        this.levels = Collections.unmodifiableMap(new HashMap<String, LoggerLevel>(levels));
+    }
+
+    LoggerLevel rootLevel()
+    {
+        return rootLevel;
+    }
+
+    Map<String, LoggerLevel> levels()
+    {
+        return levels;
+    }
+
+    LevelHierarchy withRootLevel(final LoggerLevel rootLevel)
+    {
+        return new LevelHierarchy(rootLevel, levels);
+    }
+
+    /**
+     * Returns a hierarchy with the specified levels in place of the levels set
+     * for prefixes.
+     */
+    LevelHierarchy withLevels(final Map<String, LoggerLevel> levels)
+    {
+        return new LevelHierarchy(rootLevel, levels);
+    }
+
+    /**
+     * Returns a hierarchy with the level of the specified prefix set, or
+     * removed if {@code level} is {@code null}.
+     */
+    LevelHierarchy withLevel(final String loggerNamePrefix, final LoggerLevel level)
+    {
+        Preconditions.checkArgument(!loggerNamePrefix.isEmpty(), "empty logger name prefix");
+        final Map<String, LoggerLevel> newLevels = new HashMap<String, LoggerLevel>(levels);
+        if (level == null)
+        {
+            newLevels.remove(loggerNamePrefix);
+        }
+        else
+        {
+            newLevels.put(loggerNamePrefix, level);
+        }
+        return new LevelHierarchy(rootLevel, newLevels);
+    }
+
+    /**
+     * Returns the effective level of the specified logger.
+     */
+    LoggerLevel getLevel(final String loggerName)
+    {
+        String prefix = loggerName;
+        while (true)
+        {
+            final LoggerLevel level = levels.get(prefix);
+            if (level != null)
+            {
+                return level;
+            }
+
+            final int lastDot = prefix.lastIndexOf('.');
+            if (lastDot < 0)
+            {
+                return rootLevel;
+            }
+            prefix = prefix.substring(0, lastDot);
+        }
+    }
+}
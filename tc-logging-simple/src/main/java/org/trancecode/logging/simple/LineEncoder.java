@@ -0,0 +1,353 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Encodes log events as lines of the simple backend file format:
+ * <p>
+ * <code>
+ * id::LEVEL::yyyy-MM-dd HH:mm:ss.SSS::logger::message
+ * </code>
+ * <p>
+ * Each line of a multi-line message is written with the same prefix. The
+ * diagnostic context of the event, if any, is written at the start of the
+ * message as <code>[key=value, ...]</code>. Events may also be encoded as
+ * their bare message, with the context, for the console. Padded
+ * level names and logger names are encoded once, and the date and time of the
+ * current second are only formatted when the second changes, so that encoding
+ * an event allocates nothing once the encoder is warmed up.
+ * <p>
+ * Instances are not thread-safe and are meant to be used by the output thread
+ * only.
+ * 
+ * @author Herve Quiroz
+ */
+final class LineEncoder
+{
+    private static final int LOGGER_NAME_CACHE_SIZE = 4096;
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+    private static final int LEVEL_LENGTH = 5;
+    private static final int EVENT_ID_LENGTH = 16;
+    private static final int SECOND_PREFIX_LENGTH = "yyyy-MM-dd HH:mm:ss.".length();
+    private static final byte[] HEX_DIGITS = asciiBytes("0123456789abcdef");
+    private static final String ASCII_SAMPLE = "azAZ09 .:-_";
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final Charset charset;
+    private final CharsetEncoder encoder;
+    private final boolean asciiCompatible;
+    private final byte[] delimiter;
+    private final byte[] lineSeparator;
+    private final byte[][] levels;
+    private final Map<String, byte[]> loggerNames = new HashMap<String, byte[]>();
+    private final Calendar calendar = Calendar.getInstance();
+    private final byte[] secondPrefix = new byte[SECOND_PREFIX_LENGTH];
+    private long currentSecond = Long.MIN_VALUE;
+    private DiagnosticContext encodedContext = DiagnosticContext.EMPTY;
+    private byte[] encodedContextBytes = NO_BYTES;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    private int length;
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+    LineEncoder(final Charset charset, final String delimiter, final String lineSeparator)
+    {
+        this.charset = Preconditions.checkNotNull(charset);
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(
+                CodingErrorAction.REPLACE);
+        this.asciiCompatible = Arrays.equals(ASCII_SAMPLE.getBytes(charset), asciiBytes(ASCII_SAMPLE));
+        this.delimiter = delimiter.getBytes(charset);
+        this.lineSeparator = lineSeparator.getBytes(charset);
+
+        final LoggerLevel[] loggerLevels = LoggerLevel.values();
+        levels = new byte[loggerLevels.length][];
+        for (final LoggerLevel level : loggerLevels)
+        {
+            levels[level.ordinal()] = level.toRightPaddedString(LEVEL_LENGTH, " ").getBytes(charset);
+        }
+    }
+
+    private static byte[] asciiBytes(final String string)
+    {
+        final byte[] bytes = new byte[string.length()];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte) string.charAt(i);
+        }
+        return bytes;
+    }
+
+    Charset charset()
+    {
+        return charset;
+    }
+
+    /**
+     * Returns the bytes encoded since the last {@link #reset()}.
+     */
+    byte[] array()
+    {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes encoded since the last {@link #reset()}.
+     */
+    int length()
+    {
+        return length;
+    }
+
+    /**
+     * Discards the encoded bytes.
+     */
+    void reset()
+    {
+        length = 0;
+        if (bytes.length > MAX_RETAINED_CAPACITY)
+        {
+            setBytes(new byte[INITIAL_CAPACITY]);
+        }
+        if (chars.length > MAX_RETAINED_CAPACITY)
+        {
+            chars = new char[INITIAL_CAPACITY];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+    }
+
+    /**
+     * Appends the lines of the specified event.
+     */
+    void encode(final long eventId, final LogEvent event)
+    {
+        final StringBuilder message = event.message;
+        final int messageLength = message.length();
+        int start = 0;
+        while (start < messageLength)
+        {
+            int end = start;
+            while (end < messageLength && message.charAt(end) != '\n')
+            {
+                end++;
+            }
+            // Empty lines are skipped
+            if (end > start)
+            {
+                appendPrefix(eventId, event);
+                appendChars(message, start, end);
+                append(lineSeparator);
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Appends the message of the specified event as is, followed by a line
+     * separator.
+     */
+    void encodeMessage(final LogEvent event)
+    {
+        append(getContext(event.context));
+        appendChars(event.message, 0, event.message.length());
+        append(lineSeparator);
+    }
+
+    private void appendPrefix(final long eventId, final LogEvent event)
+    {
+        ensureCapacity(EVENT_ID_LENGTH);
+        for (int shift = (EVENT_ID_LENGTH - 1) * 4; shift >= 0; shift -= 4)
+        {
+            bytes[length++] = HEX_DIGITS[(int) (eventId >>> shift) & 0xF];
+        }
+        append(delimiter);
+        append(levels[event.level.ordinal()]);
+        append(delimiter);
+        appendTime(event.time);
+        append(delimiter);
+        append(getLoggerName(event.loggerName));
+        append(delimiter);
+        append(getContext(event.context));
+    }
+
+    private void appendTime(final long time)
+    {
+        final long second = time / 1000;
+        if (second != currentSecond)
+        {
+            calendar.setTimeInMillis(second * 1000);
+            int offset = 0;
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.YEAR), 4);
+            secondPrefix[offset++] = '-';
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.MONTH) + 1, 2);
+            secondPrefix[offset++] = '-';
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.DAY_OF_MONTH), 2);
+            secondPrefix[offset++] = ' ';
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.HOUR_OF_DAY), 2);
+            secondPrefix[offset++] = ':';
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.MINUTE), 2);
+            secondPrefix[offset++] = ':';
+            offset = putDigits(secondPrefix, offset, calendar.get(Calendar.SECOND), 2);
+            secondPrefix[offset++] = '.';
+            assert offset == SECOND_PREFIX_LENGTH;
+            currentSecond = second;
+        }
+
+        append(secondPrefix);
+        ensureCapacity(3);
+        length = putDigits(bytes, length, (int) (time - second * 1000), 3);
+    }
+
+    private static int putDigits(final byte[] destination, final int offset, final int value, final int digits)
+    {
+        int remaining = value;
+        for (int i = offset + digits - 1; i >= offset; i--)
+        {
+            destination[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return offset + digits;
+    }
+
+    /**
+     * Returns the encoded form of the specified context, followed by a space.
+     * <p>
+     * The last context is remembered, as consecutive events usually share the
+     * same context instance.
+     */
+    private byte[] getContext(final DiagnosticContext context)
+    {
+        if (context != encodedContext)
+        {
+            encodedContext = context;
+            if (context.isEmpty())
+            {
+                encodedContextBytes = NO_BYTES;
+            }
+            else
+            {
+                final String renderedContext = context.appendTo(new StringBuilder()).append(' ').toString();
+                // Line breaks would start lines without prefix
+                encodedContextBytes = renderedContext.replace('\n', ' ').getBytes(charset);
+            }
+        }
+
+        return encodedContextBytes;
+    }
+
+    private byte[] getLoggerName(final String loggerName)
+    {
+        final byte[] cachedLoggerName = loggerNames.get(loggerName);
+        if (cachedLoggerName != null)
+        {
+            return cachedLoggerName;
+        }
+
+        final byte[] encodedLoggerName = loggerName.getBytes(charset);
+        if (loggerNames.size() < LOGGER_NAME_CACHE_SIZE)
+        {
+            loggerNames.put(loggerName, encodedLoggerName);
+        }
+        return encodedLoggerName;
+    }
+
+    private void appendChars(final StringBuilder message, final int start, final int end)
+    {
+        int index = start;
+        if (asciiCompatible)
+        {
+            ensureCapacity(end - start);
+            while (index < end)
+            {
+                final char c = message.charAt(index);
+                if (c >= 0x80)
+                {
+                    break;
+                }
+                bytes[length++] = (byte) c;
+                index++;
+            }
+        }
+
+        if (index < end)
+        {
+            encodeChars(message, index, end);
+        }
+    }
+
+    private void encodeChars(final StringBuilder message, final int start, final int end)
+    {
+        final int count = end - start;
+        if (chars.length < count)
+        {
+            chars = new char[count];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        message.getChars(start, end, chars, 0);
+        charBuffer.clear();
+        charBuffer.limit(count);
+
+        encoder.reset();
+        ensureCapacity((int) (count * encoder.maxBytesPerChar()) + 16);
+        byteBuffer.limit(bytes.length);
+        byteBuffer.position(length);
+        CoderResult result = encoder.encode(charBuffer, byteBuffer, true);
+        if (!result.isError())
+        {
+            result = encoder.flush(byteBuffer);
+        }
+        assert !result.isOverflow() : result;
+        length = byteBuffer.position();
+    }
+
+    private void append(final byte[] source)
+    {
+        ensureCapacity(source.length);
+        System.arraycopy(source, 0, bytes, length, source.length);
+        length += source.length;
+    }
+
+    private void ensureCapacity(final int extraLength)
+    {
+        if (length + extraLength > bytes.length)
+        {
+            setBytes(Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extraLength)));
+        }
+    }
+
+    private void setBytes(final byte[] bytes)
+    {
+        this.bytes = bytes;
+        byteBuffer = ByteBuffer.wrap(bytes);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * A log event read back from a binary log file.
+ * 
+ * @author Herve Quiroz
+ * @see BinaryLogReader
+ */
+public final class LogEntry
+{
+    private final long eventId;
+    private final LoggerLevel level;
+    private final long time;
+    private final String loggerName;
+    private final String message;
+
+    public LogEntry(final long eventId, final LoggerLevel level, final long time, final String loggerName,
+            final String message)
+    {
+        this.eventId = eventId;
+        this.level = Preconditions.checkNotNull(level);
+        this.time = time;
+        this.loggerName = Preconditions.checkNotNull(loggerName);
+        this.message = Preconditions.checkNotNull(message);
+    }
+
+    public long eventId()
+    {
+        return eventId;
+    }
+
+    public LoggerLevel level()
+    {
+        return level;
+    }
+
+    /**
+     * Returns the time of the event in milliseconds since the epoch.
+     */
+    public long time()
+    {
+        return time;
+    }
+
+    public String loggerName()
+    {
+        return loggerName;
+    }
+
+    /**
+     * Returns the message rendered with the values recorded when the event was
+     * logged.
+     */
+    public String message()
+    {
+        return message;
+    }
+
+    @Override
+    public String toString()
+    {
+        return eventId + " " + level + " " + time + " " + loggerName + " " + message;
+    }
+}
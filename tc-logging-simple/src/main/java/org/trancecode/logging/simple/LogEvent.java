@@ -0,0 +1,120 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Arrays;
+
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.LoggerLevel;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * A reusable slot of the {@link LogEventRingBuffer}.
+ * <p>
+ * Fields are written by the logging thread that claimed the slot and read by
+ * the output thread once the slot is published.
+ * 
+ * @author Herve Quiroz
+ */
+final class LogEvent
+{
+    private static final int INITIAL_MESSAGE_CAPACITY = 256;
+    private static final int MAX_RETAINED_MESSAGE_CAPACITY = 64 * 1024;
+    private static final Object[] NO_PLACEHOLDER_VALUES = new Object[0];
+
+    long time;
+    LoggerLevel level;
+    String loggerName;
+    StringBuilder message = new StringBuilder(INITIAL_MESSAGE_CAPACITY);
+    boolean toFile;
+    boolean toConsole;
+
+    /**
+     * The diagnostic context of the logging thread, which is immutable and
+     * thus simply referenced.
+     */
+    DiagnosticContext context = DiagnosticContext.EMPTY;
+
+    /**
+     * The template of the message and the encoded values of its place-holders
+     * when the message is not rendered by the logging thread.
+     */
+    MessageTemplate template;
+    final BinaryOutput values = new BinaryOutput();
+
+    /**
+     * The values of the place-holders of the template when the message is
+     * rendered by the output thread from the values themselves.
+     * 
+     * @see DeferredMessage
+     */
+    Object[] placeholderValues = NO_PLACEHOLDER_VALUES;
+    int placeholderValueCount;
+
+    void set(final long time, final LoggerLevel level, final String loggerName, final CharSequence message)
+    {
+        this.time = time;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.message.setLength(0);
+        this.message.append(message);
+    }
+
+    void setPlaceholderValues(final MessageTemplate template, final Object[] values)
+    {
+        this.template = template;
+        placeholderValueCount = template.placeholderCount();
+        if (placeholderValues.length < placeholderValueCount)
+        {
+            placeholderValues = new Object[placeholderValueCount];
+        }
+        System.arraycopy(values, 0, placeholderValues, 0, placeholderValueCount);
+    }
+
+    /**
+     * Renders the message from the values of its place-holders, which are
+     * released.
+     */
+    void renderPlaceholderValues()
+    {
+        message.setLength(0);
+        DeferredMessage.render(message, template, placeholderValues);
+        template = null;
+        clearPlaceholderValues();
+    }
+
+    private void clearPlaceholderValues()
+    {
+        Arrays.fill(placeholderValues, 0, placeholderValueCount, null);
+        placeholderValueCount = 0;
+    }
+
+    /**
+     * Releases references held by this slot once it has been processed.
+     */
+    void clear()
+    {
+        loggerName = null;
+        context = DiagnosticContext.EMPTY;
+        template = null;
+        values.reset();
+        clearPlaceholderValues();
+        if (message.capacity() > MAX_RETAINED_MESSAGE_CAPACITY)
+        {
+            message = new StringBuilder(INITIAL_MESSAGE_CAPACITY);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * A bounded multi-producer, single-consumer ring buffer of preallocated
+ * {@link LogEvent} slots.
+ * <p>
+ * Each slot has a sequence number that tells whether it is free for the
+ * producer claiming the given position or published for the consumer. Logging
+ * threads claim a position with a single CAS, fill the slot and publish it;
+ * the output thread drains published slots in batches and releases them in
+ * place. No allocation or lock is involved once the buffer is created.
+ * <p>
+ * The oldest published event may also be discarded by a logging thread to
+ * make room for a new one, which is why the head position is advanced with a
+ * CAS as well.
+ * 
+ * @author Herve Quiroz
+ */
+final class LogEventRingBuffer
+{
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PRODUCER_PARK_NANOS = 1000;
+
+    /**
+     * Processes the events drained from the buffer.
+     */
+    interface Handler
+    {
+        void onEvent(LogEvent event);
+
+        void onEndOfBatch();
+    }
+
+    private final LogEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private volatile Thread consumer;
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+
+    public LogEventRingBuffer(final int capacity)
+    {
+        Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1,
+                "capacity must be a power of two: %s", capacity);
+        events = new LogEvent[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            events[i] = new LogEvent();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    public int capacity()
+    {
+        return events.length;
+    }
+
+    /**
+     * Returns the number of claimed slots that have not been released yet.
+     */
+    public int size()
+    {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Claims the next slot, waiting for the consumer to release one if the
+     * buffer is full, or returns {@code -1} once the buffer is
+     * {@link #close() closed} as no slot will ever be released then.
+     */
+    public long next()
+    {
+        int tries = 0;
+        while (true)
+        {
+            final long sequence = tryNext();
+            if (sequence >= 0)
+            {
+                return sequence;
+            }
+            if (closed)
+            {
+                return -1;
+            }
+
+            tries++;
+            if (tries > SPIN_TRIES + YIELD_TRIES)
+            {
+                LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+            }
+            else if (tries > SPIN_TRIES)
+            {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Claims the next slot, or returns {@code -1} if the buffer is full.
+     */
+    public long tryNext()
+    {
+        while (true)
+        {
+            final long sequence = tail.get();
+            final long available = sequences.get((int) sequence & mask);
+            if (available == sequence)
+            {
+                if (tail.compareAndSet(sequence, sequence + 1))
+                {
+                    return sequence;
+                }
+            }
+            else if (available < sequence)
+            {
+                return -1;
+            }
+        }
+    }
+
+    public LogEvent get(final long sequence)
+    {
+        return events[(int) sequence & mask];
+    }
+
+    /**
+     * Makes the claimed slot available to the consumer.
+     */
+    public void publish(final long sequence)
+    {
+        sequences.set((int) sequence & mask, sequence + 1);
+        if (consumerWaiting)
+        {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Passes at most {@code maxBatchSize} published events to the handler,
+     * releasing each slot as soon as it has been processed, and returns the
+     * number of events drained.
+     * <p>
+     * Must only be invoked from the consumer thread.
+     */
+    public int drain(final Handler handler, final int maxBatchSize)
+    {
+        int count = 0;
+        while (count < maxBatchSize)
+        {
+            final long sequence = head.get();
+            final int index = (int) sequence & mask;
+            if (sequences.get(index) != sequence + 1)
+            {
+                break;
+            }
+            if (!head.compareAndSet(sequence, sequence + 1))
+            {
+                // Discarded by a logging thread in the meantime
+                continue;
+            }
+
+            final LogEvent event = events[index];
+            try
+            {
+                handler.onEvent(event);
+            }
+            finally
+            {
+                release(sequence);
+                count++;
+            }
+        }
+
+        if (count > 0)
+        {
+            handler.onEndOfBatch();
+        }
+
+        return count;
+    }
+
+    /**
+     * Discards the oldest published event, if any, and returns {@code true} if
+     * an event was discarded.
+     */
+    public boolean discardOldest()
+    {
+        final long sequence = head.get();
+        if (sequences.get((int) sequence & mask) == sequence + 1 && head.compareAndSet(sequence, sequence + 1))
+        {
+            release(sequence);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void release(final long sequence)
+    {
+        final int index = (int) sequence & mask;
+        events[index].clear();
+        sequences.lazySet(index, sequence + events.length);
+    }
+
+    /**
+     * Notifies that the consumer is gone, so that producers no longer wait for
+     * it to release slots.
+     */
+    public void close()
+    {
+        closed = true;
+    }
+
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Returns {@code true} if an event is published and not drained yet.
+     */
+    public boolean hasEvents()
+    {
+        final long sequence = head.get();
+        return sequences.get((int) sequence & mask) == sequence + 1;
+    }
+
+    /**
+     * Parks the consumer thread until an event is published or the timeout
+     * expires.
+     */
+    public void await(final long timeoutNanos)
+    {
+        consumer = Thread.currentThread();
+        consumerWaiting = true;
+        try
+        {
+            if (!hasEvents())
+            {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        }
+        finally
+        {
+            consumerWaiting = false;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses rotated log files and enforces the retention budget of the log
+ * files with the same prefix in their directory, on a low-priority background
+ * thread so that the output thread never waits for either.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_COMPRESSION
+ * @see SimpleLoggerManager#PROPERTY_RETENTION_SIZE
+ * @see SimpleLoggerManager#PROPERTY_RETENTION_AGE
+ */
+final class LogFileArchiver implements Runnable
+{
+    static final String COMPRESSED_FILE_SUFFIX = ".gz";
+
+    /**
+     * Matches the files created by {@link SimpleLoggerManager}:
+     * <code>prefix.yyyy-MM-dd.id.log</code> or <code>.bin</code>, possibly
+     * compressed, the prefix being captured.
+     */
+    private static final String LOG_FILE_NAME_SUFFIX = "\\.\\d{4}-\\d{2}-\\d{2}\\.[0-9a-f]+\\.(log|bin)(\\.gz)?";
+    private static final Pattern LOG_FILE_NAME = Pattern.compile("(.+)" + LOG_FILE_NAME_SUFFIX);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A log file along with its size and modification time, read once so
+     * that files written by other processes sort consistently.
+     */
+    private static final class LogFile
+    {
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        public LogFile(final File file)
+        {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    private static final Comparator<LogFile> NEWEST_FIRST = new Comparator<LogFile>()
+    {
+        @Override
+        public int compare(final LogFile file1, final LogFile file2)
+        {
+            return file1.lastModified > file2.lastModified ? -1 : file1.lastModified == file2.lastModified ? 0 : 1;
+        }
+    };
+
+    /**
+     * A file to archive, or a directory for a retention pass only, along with
+     * the prefix of the log files the retention pass applies to.
+     */
+    private static final class Task
+    {
+        private final File file;
+        private final String logFileNamePrefix;
+
+        public Task(final File file, final String logFileNamePrefix)
+        {
+            this.file = file;
+            this.logFileNamePrefix = logFileNamePrefix;
+        }
+    }
+
+    private final BlockingQueue<Task> tasks = new LinkedBlockingQueue<Task>();
+    private final boolean compression;
+    private final long maxTotalSize;
+    private final long maxAge;
+    private final PrintStream errorDestination;
+    private volatile File activeFile;
+
+    /**
+     * @param maxTotalSize
+     *            the maximum number of bytes of log files kept in a directory,
+     *            or {@code 0} for no limit
+     * @param maxAge
+     *            the maximum age in milliseconds of log files kept in a
+     *            directory, or {@code 0} for no limit
+     */
+    LogFileArchiver(final boolean compression, final long maxTotalSize, final long maxAge,
+            final PrintStream errorDestination)
+    {
+        this.compression = compression;
+        this.maxTotalSize = maxTotalSize;
+        this.maxAge = maxAge;
+        this.errorDestination = errorDestination;
+    }
+
+    /**
+     * Sets the file currently written, which is never removed.
+     */
+    void setActiveFile(final File activeFile)
+    {
+        this.activeFile = activeFile;
+    }
+
+    /**
+     * Queues a file that is no longer written for compression, followed by a
+     * retention pass over the log files of its directory that have the same
+     * prefix.
+     */
+    void archive(final File rotatedFile)
+    {
+        final Matcher matcher = LOG_FILE_NAME.matcher(rotatedFile.getName());
+        tasks.add(new Task(rotatedFile, matcher.matches() ? matcher.group(1) : null));
+    }
+
+    /**
+     * Queues a retention pass over the log files of the specified directory
+     * that have the specified prefix.
+     */
+    void cleanUp(final File directory, final String logFileNamePrefix)
+    {
+        tasks.add(new Task(directory, logFileNamePrefix));
+    }
+
+    @Override
+    public void run()
+    {
+        while (true)
+        {
+            final Task task;
+            try
+            {
+                task = tasks.take();
+            }
+            catch (final InterruptedException e)
+            {
+                return;
+            }
+
+            try
+            {
+                final File file = task.file;
+                if (file.isDirectory())
+                {
+                    applyRetention(file, task.logFileNamePrefix, System.currentTimeMillis());
+                }
+                else
+                {
+                    if (compression)
+                    {
+                        compress(file);
+                    }
+                    if (task.logFileNamePrefix != null)
+                    {
+                        applyRetention(file.getParentFile(), task.logFileNamePrefix, System.currentTimeMillis());
+                    }
+                }
+            }
+            catch (final Throwable t)
+            {
+                t.printStackTrace(errorDestination);
+            }
+        }
+    }
+
+    /**
+     * Replaces the specified file with its compressed version.
+     */
+    static File compress(final File file) throws IOException
+    {
+        final File compressedFile = new File(file.getPath() + COMPRESSED_FILE_SUFFIX);
+        final File temporaryFile = new File(compressedFile.getPath() + ".tmp");
+        final InputStream input = new FileInputStream(file);
+        try
+        {
+            final OutputStream output = new GZIPOutputStream(new FileOutputStream(temporaryFile), COPY_BUFFER_SIZE);
+            try
+            {
+                final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                for (int length = input.read(buffer); length >= 0; length = input.read(buffer))
+                {
+                    output.write(buffer, 0, length);
+                }
+            }
+            finally
+            {
+                output.close();
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+
+        // Keep the original time so that retention is based on the last event
+        temporaryFile.setLastModified(file.lastModified());
+        if (!temporaryFile.renameTo(compressedFile))
+        {
+            temporaryFile.delete();
+            throw new IOException("cannot rename " + temporaryFile + " to " + compressedFile);
+        }
+        if (!file.delete())
+        {
+            throw new IOException("cannot delete " + file);
+        }
+        // The index refers to offsets in the uncompressed file
+        LogFileIndex.getIndexFile(file).delete();
+
+        return compressedFile;
+    }
+
+    /**
+     * Removes the oldest log files of the specified directory with the
+     * specified prefix until they fit in the retention budget. Log files of
+     * other prefixes, such as those of other processes sharing the
+     * directory, are neither counted nor removed.
+     */
+    void applyRetention(final File directory, final String logFileNamePrefix, final long now)
+    {
+        if (maxTotalSize <= 0 && maxAge <= 0)
+        {
+            return;
+        }
+
+        final File[] files = directory.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+
+        final Pattern logFileName = Pattern.compile(Pattern.quote(logFileNamePrefix) + LOG_FILE_NAME_SUFFIX);
+        final List<LogFile> logFiles = new ArrayList<LogFile>();
+        for (final File file : files)
+        {
+            if (logFileName.matcher(file.getName()).matches() && file.isFile())
+            {
+                logFiles.add(new LogFile(file));
+            }
+        }
+        Collections.sort(logFiles, NEWEST_FIRST);
+
+        long totalSize = 0;
+        for (final LogFile logFile : logFiles)
+        {
+            totalSize += logFile.length;
+            if (logFile.file.equals(activeFile))
+            {
+                continue;
+            }
+
+            final boolean tooLarge = maxTotalSize > 0 && totalSize > maxTotalSize;
+            final boolean tooOld = maxAge > 0 && now - logFile.lastModified > maxAge;
+            if (tooLarge || tooOld)
+            {
+                if (!logFile.file.delete())
+                {
+                    errorDestination.println("cannot delete " + logFile.file);
+                }
+                LogFileIndex.getIndexFile(logFile.file).delete();
+            }
+        }
+    }
+}
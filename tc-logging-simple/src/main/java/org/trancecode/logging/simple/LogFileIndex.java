@@ -0,0 +1,81 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the sparse index of a text log file.
+ * <p>
+ * The index is a side-car file made of fixed-size entries that each hold the
+ * offset of the first line of an event in the log file, the time of the event
+ * and its id, as big-endian {@code long} values. An entry is added for the
+ * first event written after every {@link SimpleLoggerManager#PROPERTY_INDEX_INTERVAL}
+ * bytes of log file, so that readers can seek close to a time or an event id
+ * and scan from there.
+ * <p>
+ * Entries are buffered and only written when the buffer is full or the index
+ * is closed, which means that the index of a file being written may lag
+ * behind the file.
+ * 
+ * @author Herve Quiroz
+ * @see LogFileReader
+ */
+final class LogFileIndex
+{
+    static final String FILE_SUFFIX = ".idx";
+    static final int ENTRY_SIZE = 24;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final FileAppender appender;
+    private final byte[] entry = new byte[ENTRY_SIZE];
+
+    LogFileIndex(final File logFile) throws IOException
+    {
+        appender = new ChannelFileAppender(getIndexFile(logFile), BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the index file of the specified log file.
+     */
+    static File getIndexFile(final File logFile)
+    {
+        return new File(logFile.getPath() + FILE_SUFFIX);
+    }
+
+    void add(final long offset, final long time, final long eventId) throws IOException
+    {
+        putLong(0, offset);
+        putLong(8, time);
+        putLong(16, eventId);
+        appender.write(entry, 0, ENTRY_SIZE);
+    }
+
+    private void putLong(final int offset, final long value)
+    {
+        for (int i = 0; i < 8; i++)
+        {
+            entry[offset + i] = (byte) (value >>> (56 - 8 * i));
+        }
+    }
+
+    void close() throws IOException
+    {
+        appender.close();
+    }
+}
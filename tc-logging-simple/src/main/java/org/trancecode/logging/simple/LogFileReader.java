@@ -0,0 +1,270 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Reads a text log file written by {@link SimpleLoggerManager} through
+ * memory mappings, using its side-car index, if any, to seek to a time or an
+ * event id without scanning the whole file.
+ * <p>
+ * Each line of the file is returned as a {@link LogEntry}, which means that
+ * the lines of a multi-line message are returned as separate entries with the
+ * same event id. Event ids increase throughout a file while times are only
+ * approximately ordered, as events are stamped before they are queued for
+ * writing.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author Herve Quiroz
+ */
+public final class LogFileReader implements Closeable
+{
+    private static final long WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final String LINE_DELIMITER = "::";
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private final ByteBuffer index;
+    private final int indexSize;
+    private final Charset charset;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] line = new byte[256];
+
+    public LogFileReader(final File file) throws IOException
+    {
+        this(file, Charset.defaultCharset());
+    }
+
+    public LogFileReader(final File file, final Charset charset) throws IOException
+    {
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+        this.size = channel.size();
+        this.charset = charset;
+        this.index = mapIndex(LogFileIndex.getIndexFile(file));
+        this.indexSize = index.capacity() / LogFileIndex.ENTRY_SIZE;
+        this.window = channel.map(MapMode.READ_ONLY, 0, Math.min(size, WINDOW_SIZE));
+    }
+
+    private static ByteBuffer mapIndex(final File indexFile) throws IOException
+    {
+        if (!indexFile.isFile())
+        {
+            return ByteBuffer.allocate(0);
+        }
+
+        final RandomAccessFile input = new RandomAccessFile(indexFile, "r");
+        try
+        {
+            final long length = input.length() - input.length() % LogFileIndex.ENTRY_SIZE;
+            return input.getChannel().map(MapMode.READ_ONLY, 0, length);
+        }
+        finally
+        {
+            // The mapping remains valid once the file is closed
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the offset of the next line to be read.
+     */
+    public long position()
+    {
+        return position;
+    }
+
+    /**
+     * Positions the reader on the first line of the first event logged at or
+     * after the specified time, in milliseconds since the epoch.
+     */
+    public void seekToTime(final long time) throws IOException
+    {
+        seek(findIndexEntry(8, time));
+        while (true)
+        {
+            final long lineStart = position;
+            final LogEntry entry = next();
+            if (entry == null || entry.time() >= time)
+            {
+                position = lineStart;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Positions the reader on the first line of the specified event, or of
+     * the next one if there is no such event.
+     */
+    public void seekToEventId(final long eventId) throws IOException
+    {
+        seek(findIndexEntry(16, eventId));
+        while (true)
+        {
+            final long lineStart = position;
+            final LogEntry entry = next();
+            if (entry == null || entry.eventId() >= eventId)
+            {
+                position = lineStart;
+                return;
+            }
+        }
+    }
+
+    private void seek(final long offset)
+    {
+        position = Math.min(offset, size);
+    }
+
+    /**
+     * Returns the offset of the last indexed event for which the value at the
+     * specified position in the index entry is lower than the specified
+     * value, or {@code 0} if there is none.
+     */
+    private long findIndexEntry(final int valueOffset, final long value)
+    {
+        int low = 0;
+        int high = indexSize - 1;
+        long offset = 0;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int entry = middle * LogFileIndex.ENTRY_SIZE;
+            if (index.getLong(entry + valueOffset) < value)
+            {
+                offset = index.getLong(entry);
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the byte at the specified offset of the file, or {@code -1} past
+     * the end of the file.
+     */
+    private int byteAt(final long offset) throws IOException
+    {
+        if (offset >= size)
+        {
+            return -1;
+        }
+        if (offset < windowStart || offset >= windowStart + window.capacity())
+        {
+            windowStart = offset;
+            window = channel.map(MapMode.READ_ONLY, windowStart, Math.min(size - windowStart, WINDOW_SIZE));
+        }
+        return window.get((int) (offset - windowStart)) & 0xFF;
+    }
+
+    /**
+     * Returns the next line as a {@link LogEntry}, or {@code null} at the end
+     * of the file.
+     */
+    public LogEntry next() throws IOException
+    {
+        final long lineStart = position;
+        int length = 0;
+        for (int b = byteAt(position); b != '\n'; b = byteAt(position))
+        {
+            // Files written with memory mappings may end with zero bytes
+            if (b < 0 || b == 0)
+            {
+                if (length > 0)
+                {
+                    throw new IOException("truncated line at offset " + lineStart);
+                }
+                return null;
+            }
+            if (length == line.length)
+            {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (byte) b;
+            position++;
+        }
+        position++;
+
+        if (length > 0 && line[length - 1] == '\r')
+        {
+            length--;
+        }
+        return parse(new String(line, 0, length, charset), lineStart);
+    }
+
+    private LogEntry parse(final String text, final long lineStart) throws IOException
+    {
+        final int levelStart = text.indexOf(LINE_DELIMITER) + LINE_DELIMITER.length();
+        final int timeStart = text.indexOf(LINE_DELIMITER, levelStart) + LINE_DELIMITER.length();
+        final int loggerStart = text.indexOf(LINE_DELIMITER, timeStart) + LINE_DELIMITER.length();
+        final int messageStart = text.indexOf(LINE_DELIMITER, loggerStart) + LINE_DELIMITER.length();
+        if (levelStart < LINE_DELIMITER.length() || timeStart < levelStart || loggerStart < timeStart
+                || messageStart < loggerStart)
+        {
+            throw new IOException("malformed line at offset " + lineStart + ": " + text);
+        }
+
+        final ParsePosition timePosition = new ParsePosition(timeStart);
+        final Date time = dateFormat.parse(text, timePosition);
+        if (time == null)
+        {
+            throw new IOException("malformed time at offset " + lineStart + ": " + text);
+        }
+
+        try
+        {
+            return new LogEntry(Long.parseLong(text.substring(0, levelStart - LINE_DELIMITER.length()), 16),
+                    LoggerLevel.valueOf(text.substring(levelStart, timeStart - LINE_DELIMITER.length()).trim()),
+                    time.getTime(), text.substring(loggerStart, messageStart - LINE_DELIMITER.length()), text
+                            .substring(messageStart));
+        }
+        catch (final IllegalArgumentException e)
+        {
+            throw new IOException("malformed line at offset " + lineStart + ": " + text, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        file.close();
+    }
+}
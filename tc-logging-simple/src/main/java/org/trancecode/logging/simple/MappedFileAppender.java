@@ -0,0 +1,171 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.trancecode.base.Preconditions;
+
+/**
+ * Appends encoded lines to a log file through memory-mapped segments.
+ * <p>
+ * The file is grown one segment at a time and bytes are copied into the
+ * mapping of the current segment, which leaves it to the page cache to write
+ * them to the file. A new segment is mapped when the current one is full and
+ * the unused tail of the last segment is truncated when the appender is
+ * closed. Until then, or if the process crashes, the file ends with zero
+ * bytes.
+ * 
+ * @author Herve Quiroz
+ * @see OutputMode#MAPPED
+ */
+final class MappedFileAppender extends FileAppender
+{
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static
+    {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try
+        {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            unsafe = unsafeField.get(null);
+        }
+        catch (final Exception e)
+        {
+            // Before Java 9, the cleaner of the buffer is used instead
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final RandomAccessFile output;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private long segmentPosition;
+    private MappedByteBuffer segment;
+    private boolean unsyncedSegments;
+
+    MappedFileAppender(final File file, final int segmentSize) throws IOException
+    {
+        super(file);
+        Preconditions.checkArgument(segmentSize > 0, "segmentSize = %s", segmentSize);
+        this.output = new RandomAccessFile(file, "rw");
+        this.channel = output.getChannel();
+        this.segmentSize = segmentSize;
+        this.segmentPosition = channel.size();
+        this.segment = channel.map(MapMode.READ_WRITE, segmentPosition, segmentSize);
+    }
+
+    /**
+     * Releases the mapping of the specified buffer without waiting for it to
+     * be garbage collected, if the platform allows it.
+     */
+    private static void unmap(final MappedByteBuffer buffer)
+    {
+        try
+        {
+            if (INVOKE_CLEANER != null)
+            {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            }
+            else
+            {
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        }
+        catch (final Exception e)
+        {
+            // The mapping is released when the buffer is garbage collected
+        }
+    }
+
+    @Override
+    void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0)
+        {
+            if (!segment.hasRemaining())
+            {
+                nextSegment();
+            }
+            final int chunk = Math.min(remaining, segment.remaining());
+            segment.put(bytes, position, chunk);
+            position += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private void nextSegment() throws IOException
+    {
+        final MappedByteBuffer previousSegment = segment;
+        segmentPosition += segmentSize;
+        segment = channel.map(MapMode.READ_WRITE, segmentPosition, segmentSize);
+        unsyncedSegments = true;
+        unmap(previousSegment);
+    }
+
+    @Override
+    void flushBuffer()
+    {
+        // Bytes copied into the mapping are already visible in the file
+    }
+
+    @Override
+    void force() throws IOException
+    {
+        if (unsyncedSegments)
+        {
+            channel.force(false);
+            unsyncedSegments = false;
+        }
+        segment.force();
+    }
+
+    @Override
+    void close() throws IOException
+    {
+        try
+        {
+            final long length = segmentPosition + segment.position();
+            unmap(segment);
+            channel.truncate(length);
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+/**
+ * The format of the log files written by {@link SimpleLoggerManager}.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_OUTPUT_FORMAT
+ */
+public enum OutputFormat
+{
+    /**
+     * One <code>id::LEVEL::time::logger::message</code> line per line of
+     * message.
+     */
+    TEXT(".log"),
+
+    /**
+     * Compact records holding the template id, level, time, logger id and
+     * place-holder values of each event, with the templates and logger names
+     * defined once per file. Messages are not rendered when they are only
+     * written to the file.
+     * 
+     * @see BinaryLogReader
+     */
+    BINARY(".bin");
+
+    private final String fileSuffix;
+
+    private OutputFormat(final String fileSuffix)
+    {
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * Returns the extension of the log files written in this format.
+     */
+    public String fileSuffix()
+    {
+        return fileSuffix;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * How the output thread of {@link SimpleLoggerManager} writes to log files.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_OUTPUT_MODE
+ */
+public enum OutputMode
+{
+    /**
+     * Accumulates lines in a buffer which is written to the file according to
+     * the {@link FlushPolicy}.
+     */
+    CHANNEL
+    {
+        @Override
+        FileAppender open(final File file, final int bufferSize, final int segmentSize) throws IOException
+        {
+            return new ChannelFileAppender(file, bufferSize);
+        }
+    },
+
+    /**
+     * Copies lines into memory-mapped segments of the file, which takes write
+     * system calls off the output thread. Only {@link FlushPolicy#FSYNC} has
+     * an effect in this mode.
+     * 
+     * @see SimpleLoggerManager#PROPERTY_SEGMENT_SIZE
+     */
+    MAPPED
+    {
+        @Override
+        FileAppender open(final File file, final int bufferSize, final int segmentSize) throws IOException
+        {
+            return new MappedFileAppender(file, segmentSize);
+        }
+    };
+
+    abstract FileAppender open(File file, int bufferSize, int segmentSize) throws IOException;
+}
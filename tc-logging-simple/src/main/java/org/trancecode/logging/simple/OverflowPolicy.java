@@ -0,0 +1,129 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * What a logging thread does when the output buffer of
+ * {@link SimpleLoggerManager} is full.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_OVERFLOW_POLICY
+ */
+public enum OverflowPolicy
+{
+    /**
+     * Waits for the output thread to make room. No event is ever lost but a
+     * slow disk slows the application down.
+     */
+    BLOCK
+    {
+        @Override
+        long claim(final LogEventRingBuffer buffer, final LoggerLevel level, final LoggerLevel overflowLevel,
+                final AtomicLong droppedEvents)
+        {
+            return buffer.next();
+        }
+    },
+
+    /**
+     * Discards the new event.
+     */
+    DROP_NEWEST
+    {
+        @Override
+        long claim(final LogEventRingBuffer buffer, final LoggerLevel level, final LoggerLevel overflowLevel,
+                final AtomicLong droppedEvents)
+        {
+            final long sequence = buffer.tryNext();
+            if (sequence < 0 && !buffer.isClosed())
+            {
+                droppedEvents.incrementAndGet();
+            }
+
+            return sequence;
+        }
+    },
+
+    /**
+     * Discards the oldest event not written yet to make room for the new one.
+     * At most one event is discarded per new event: if the slot to claim is
+     * still being written by the output thread, the logging thread waits for
+     * it rather than discarding the events behind it.
+     */
+    DROP_OLDEST
+    {
+        @Override
+        long claim(final LogEventRingBuffer buffer, final LoggerLevel level, final LoggerLevel overflowLevel,
+                final AtomicLong droppedEvents)
+        {
+            boolean discarded = false;
+            while (true)
+            {
+                final long sequence = buffer.tryNext();
+                if (sequence >= 0 || buffer.isClosed())
+                {
+                    return sequence;
+                }
+
+                if (!discarded && buffer.discardOldest())
+                {
+                    discarded = true;
+                    droppedEvents.incrementAndGet();
+                }
+                else
+                {
+                    // The slot is still being filled or written
+                    Thread.yield();
+                }
+            }
+        }
+    },
+
+    /**
+     * Discards the new event if its level is below the overflow level and
+     * waits for the output thread otherwise, so that important events are
+     * never lost.
+     * 
+     * @see SimpleLoggerManager#PROPERTY_OVERFLOW_LEVEL
+     */
+    DROP_BELOW_LEVEL
+    {
+        @Override
+        long claim(final LogEventRingBuffer buffer, final LoggerLevel level, final LoggerLevel overflowLevel,
+                final AtomicLong droppedEvents)
+        {
+            if (level.compareTo(overflowLevel) >= 0)
+            {
+                return buffer.next();
+            }
+
+            return DROP_NEWEST.claim(buffer, level, overflowLevel, droppedEvents);
+        }
+    };
+
+    /**
+     * Claims a slot of the buffer for an event of the specified level, or
+     * returns {@code -1} if the event is dropped. Never waits once the buffer
+     * is {@link LogEventRingBuffer#close() closed}, in which case the event is
+     * not counted as dropped as the caller writes it itself.
+     */
+    abstract long claim(LogEventRingBuffer buffer, LoggerLevel level, LoggerLevel overflowLevel,
+            AtomicLong droppedEvents);
+}
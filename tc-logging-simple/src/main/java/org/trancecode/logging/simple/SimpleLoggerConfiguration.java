@@ -0,0 +1,160 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+import org.trancecode.base.Preconditions;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Immutable snapshot of the configuration of {@link SimpleLoggerManager}.
+ * <p>
+ * A change of configuration replaces the whole snapshot so that a logging
+ * thread reading it once per event always sees consistent settings.
+ * 
+ * @author Herve Quiroz
+ */
+final class SimpleLoggerConfiguration
+{
+    private final LevelHierarchy levels;
+    private final LoggerLevel consoleLevel;
+    private final PrintStream consoleDestination;
+    private final Charset consoleCharset;
+    private final File outputDirectory;
+    private final String logFileNamePrefix;
+    private final OverflowPolicy overflowPolicy;
+    private final LoggerLevel overflowLevel;
+
+    SimpleLoggerConfiguration(final LevelHierarchy levels, final LoggerLevel consoleLevel,
+            final PrintStream consoleDestination, final Charset consoleCharset, final File outputDirectory,
+            final String logFileNamePrefix, final OverflowPolicy overflowPolicy, final LoggerLevel overflowLevel)
+    {
+        this.levels = Preconditions.checkNotNull(levels);
+        this.consoleLevel = Preconditions.checkNotNull(consoleLevel);
+        this.consoleDestination = Preconditions.checkNotNull(consoleDestination);
+        this.consoleCharset = Preconditions.checkNotNull(consoleCharset);
+        this.outputDirectory = outputDirectory;
+        this.logFileNamePrefix = Preconditions.checkNotNull(logFileNamePrefix);
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy);
+        this.overflowLevel = Preconditions.checkNotNull(overflowLevel);
+    }
+
+    LevelHierarchy levels()
+    {
+        return levels;
+    }
+
+    LoggerLevel consoleLevel()
+    {
+        return consoleLevel;
+    }
+
+    PrintStream consoleDestination()
+    {
+        return consoleDestination;
+    }
+
+    /**
+     * Returns the charset the console destination encodes characters with,
+     * which the output thread encodes console messages with too as they are
+     * written to the destination as bytes.
+     */
+    Charset consoleCharset()
+    {
+        return consoleCharset;
+    }
+
+    /**
+     * Returns the directory where log files are written, or {@code null} if
+     * events are not written to files.
+     */
+    File outputDirectory()
+    {
+        return outputDirectory;
+    }
+
+    String logFileNamePrefix()
+    {
+        return logFileNamePrefix;
+    }
+
+    OverflowPolicy overflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    LoggerLevel overflowLevel()
+    {
+        return overflowLevel;
+    }
+
+    /**
+     * Returns whether the log files of the specified configuration are the
+     * same as those of this one.
+     */
+    boolean hasSameLogFiles(final SimpleLoggerConfiguration configuration)
+    {
+        return logFileNamePrefix.equals(configuration.logFileNamePrefix)
+                && (outputDirectory == null ? configuration.outputDirectory == null : outputDirectory
+                        .equals(configuration.outputDirectory));
+    }
+
+    SimpleLoggerConfiguration withLevels(final LevelHierarchy levels)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withConsoleLevel(final LoggerLevel consoleLevel)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withConsoleDestination(final PrintStream consoleDestination,
+            final Charset consoleCharset)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withOutputDirectory(final File outputDirectory)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withLogFileNamePrefix(final String logFileNamePrefix)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withOverflowPolicy(final OverflowPolicy overflowPolicy)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+
+    SimpleLoggerConfiguration withOverflowLevel(final LoggerLevel overflowLevel)
+    {
+        return new SimpleLoggerConfiguration(levels, consoleLevel, consoleDestination, consoleCharset,
+                outputDirectory, logFileNamePrefix, overflowPolicy, overflowLevel);
+    }
+}
@@ -16,24 +16,34 @@
 package org.trancecode.logging.simple;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
 import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.StringTokenizer;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.ObjectName;
 
 import org.trancecode.base.Longs;
 import org.trancecode.base.Preconditions;
+import org.trancecode.logging.DiagnosticContext;
 import org.trancecode.logging.spi.DelegateLogger;
+import org.trancecode.logging.spi.LevelsFileWatcher;
 import org.trancecode.logging.spi.LoggerLevel;
 import org.trancecode.logging.spi.LoggerManager;
+import org.trancecode.logging.spi.MessageBuffers;
+import org.trancecode.logging.spi.MessageTemplate;
+import org.trancecode.logging.spi.RenderingDelegateLogger;
 
 /**
  * @author Herve Quiroz
@@ -43,161 +53,603 @@ public final class SimpleLoggerManager extends LoggerManager
     public static final String DISABLE_OUTPUT_DIRECTORY = "<none>";
     public static final String PROPERTY_OUTPUT_DIRECTORY = "logging.output.directory";
     public static final String PROPERTY_LEVEL = "logging.level";
+    public static final String PROPERTY_LOGGER_LEVEL_PREFIX = PROPERTY_LEVEL + ".";
+    public static final String PROPERTY_LEVELS_FILE = "logging.levels.file";
+    public static final String PROPERTY_LEVELS_FILE_INTERVAL = "logging.levels.file.interval";
+    public static final String PROPERTY_CONSOLE_LEVEL = "logging.console.level";
+    public static final String PROPERTY_BUFFER_SIZE = "logging.buffer.size";
+    public static final String PROPERTY_WAIT_STRATEGY = "logging.wait.strategy";
+    public static final String PROPERTY_OVERFLOW_POLICY = "logging.overflow.policy";
+    public static final String PROPERTY_OVERFLOW_LEVEL = "logging.overflow.level";
+    public static final String PROPERTY_OUTPUT_MODE = "logging.output.mode";
+    public static final String PROPERTY_OUTPUT_FORMAT = "logging.output.format";
+    public static final String PROPERTY_SEGMENT_SIZE = "logging.segment.size";
+    public static final String PROPERTY_ROTATION_SIZE = "logging.rotation.size";
+    public static final String PROPERTY_ROTATION_INTERVAL = "logging.rotation.interval";
+    public static final String PROPERTY_COMPRESSION = "logging.compression";
+    public static final String PROPERTY_RETENTION_SIZE = "logging.retention.size";
+    public static final String PROPERTY_RETENTION_AGE = "logging.retention.age";
+    public static final String PROPERTY_INDEX_INTERVAL = "logging.index.interval";
+    public static final String PROPERTY_FLUSH_POLICY = "logging.flush.policy";
+    public static final String PROPERTY_FLUSH_INTERVAL = "logging.flush.interval";
+    public static final String PROPERTY_JMX = "logging.jmx";
+    public static final String PROPERTY_METRICS_SUPPRESSED = "logging.metrics.suppressed";
+    public static final String PROPERTY_DEFERRED_FORMATTING = "logging.deferred.formatting";
+    public static final String METRICS_OBJECT_NAME = "org.trancecode.logging:type=SimpleLoggerManager";
 
     private static final String LINE_DELIMITER = "::";
+    private static final int INITIAL_PLACEHOLDER_VALUES_CAPACITY = 16;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long SHUTDOWN_TIMEOUT = 5000;
+    private static final int FILE_BUFFER_SIZE = 256 * 1024;
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL = 1000;
+    private static final long DEFAULT_ROTATION_SIZE = 128L * 1024 * 1024;
+    private static final long DEFAULT_RETENTION_SIZE = 1024L * 1024 * 1024;
+    private static final long DEFAULT_INDEX_INTERVAL = 4096;
+    private static final long DEFAULT_LEVELS_FILE_INTERVAL = 5000;
+    private static final long DROPPED_EVENTS_REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
 
-    private static final ExecutorService OUTPUT_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory()
+    private static final ThreadLocal<BinaryOutput> VALUES_BUFFER = new ThreadLocal<BinaryOutput>()
     {
         @Override
-        public Thread newThread(final Runnable r)
+        protected BinaryOutput initialValue()
+        {
+            return new BinaryOutput();
+        }
+    };
+
+    private static final ThreadLocal<Object[]> PLACEHOLDER_VALUES = new ThreadLocal<Object[]>()
+    {
+        @Override
+        protected Object[] initialValue()
+        {
+            return new Object[INITIAL_PLACEHOLDER_VALUES_CAPACITY];
+        }
+    };
+
+    private static final LogEventRingBuffer OUTPUT_BUFFER = new LogEventRingBuffer(getBufferSize(Integer.getInteger(
+            PROPERTY_BUFFER_SIZE, DEFAULT_BUFFER_SIZE)));
+    private static final WaitStrategy WAIT_STRATEGY = WaitStrategy.valueOf(System.getProperty(PROPERTY_WAIT_STRATEGY,
+            WaitStrategy.BLOCKING.name()));
+    private static final OutputMode OUTPUT_MODE = OutputMode.valueOf(System.getProperty(PROPERTY_OUTPUT_MODE,
+            OutputMode.CHANNEL.name()));
+    private static final OutputFormat OUTPUT_FORMAT = OutputFormat.valueOf(System.getProperty(PROPERTY_OUTPUT_FORMAT,
+            OutputFormat.TEXT.name()));
+    private static final int SEGMENT_SIZE = Integer.getInteger(PROPERTY_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+    private static final FlushPolicy FLUSH_POLICY = FlushPolicy.valueOf(System.getProperty(PROPERTY_FLUSH_POLICY,
+            FlushPolicy.BATCH.name()));
+    private static final long FLUSH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(Long.getLong(PROPERTY_FLUSH_INTERVAL,
+            DEFAULT_FLUSH_INTERVAL));
+    private static final long INDEX_INTERVAL = Long.getLong(PROPERTY_INDEX_INTERVAL, DEFAULT_INDEX_INTERVAL);
+    private static final boolean DEFERRED_FORMATTING = Boolean.getBoolean(PROPERTY_DEFERRED_FORMATTING);
+    private static final long ROTATION_SIZE = Long.getLong(PROPERTY_ROTATION_SIZE, DEFAULT_ROTATION_SIZE);
+    private static final long ROTATION_INTERVAL = Long.getLong(PROPERTY_ROTATION_INTERVAL, 0);
+    private static final LogFileArchiver ARCHIVER = new LogFileArchiver(Boolean.parseBoolean(System.getProperty(
+            PROPERTY_COMPRESSION, "true")), Long.getLong(PROPERTY_RETENTION_SIZE, DEFAULT_RETENTION_SIZE), Long
+            .getLong(PROPERTY_RETENTION_AGE, 0), System.err);
+    private static final Thread OUTPUT_THREAD;
+    private static volatile boolean running = true;
+    private static final AtomicLong DROPPED_EVENTS = new AtomicLong();
+
+    /**
+     * Writes the events left in the output buffer once the output thread is
+     * gone.
+     */
+    private static final LogEventRingBuffer.Handler SYNCHRONOUS_WRITER = new LogEventRingBuffer.Handler()
+    {
+        @Override
+        public void onEvent(final LogEvent event)
+        {
+            if (event.placeholderValueCount > 0)
+            {
+                event.renderPlaceholderValues();
+            }
+            final BinaryOutput values = event.template != null ? event.values : null;
+            writeSynchronously(configuration.consoleDestination(), event.context, event.message, event.template,
+                    values, null);
+        }
+
+        @Override
+        public void onEndOfBatch()
         {
-            final Thread thread = new Thread(r, SimpleLoggerManager.class.getSimpleName() + ".output");
-            thread.setDaemon(true);
-            thread.setPriority(Thread.MAX_PRIORITY);
-            return thread;
+            // Written as they come
         }
-    });
+    };
+    private static final SimpleLoggerMetrics METRICS = new SimpleLoggerMetrics(OUTPUT_BUFFER);
+    private static final boolean COUNT_SUPPRESSED_EVENTS = Boolean.getBoolean(PROPERTY_METRICS_SUPPRESSED);
 
-    private static String logFileNamePrefix = ManagementFactory.getRuntimeMXBean().getName();
-    private static PrintStream consoleDestination = System.err;
-    private static LoggerLevel level;
-    private static volatile File outputDirectory;
+    private static final Object CONFIGURATION_LOCK = new Object();
+    private static final Map<SimpleDelegateLogger, Boolean> DELEGATES;
+    private static final Map<String, LoggerLevel> SYSTEM_PROPERTY_LEVELS;
+    private static volatile SimpleLoggerConfiguration configuration;
 
-    private static PrintStream fileDestination = null;
-    private static int currentFileDayOfTheWeek = 0;
-    private static volatile long eventId = 0;
+    // The following fields are only accessed by the output thread
+    private static SimpleLoggerConfiguration outputConfiguration;
+    private static FileAppender fileDestination = null;
+    private static boolean fileDestinationReset;
+    private static long fileDestinationSize;
+    private static LogFileIndex fileIndex;
+    private static long lastIndexedOffset;
+    private static long nextFileRotationTime = 0;
+    private static final Calendar FILE_ROTATION_CALENDAR = Calendar.getInstance();
+    private static final LineEncoder LINE_ENCODER = new LineEncoder(Charset.defaultCharset(), LINE_DELIMITER, System
+            .getProperty("line.separator"));
+    private static final BinaryEncoder BINARY_ENCODER = new BinaryEncoder();
+    private static LineEncoder consoleEncoder;
+    private static long eventId = 0;
 
     static
     {
         final String outputDirectoryPath = System.getProperty(PROPERTY_OUTPUT_DIRECTORY,
                 System.getProperty("java.io.tmpdir"));
+        final File outputDirectory;
         if (outputDirectoryPath.equals(DISABLE_OUTPUT_DIRECTORY))
         {
-            setOutputDirectory(null);
+            outputDirectory = null;
         }
         else
         {
-            setOutputDirectory(new File(outputDirectoryPath).getAbsoluteFile());
+            outputDirectory = checkOutputDirectory(new File(outputDirectoryPath));
         }
 
+        DELEGATES = new WeakHashMap<SimpleDelegateLogger, Boolean>();
         final String levelName = System.getProperty(PROPERTY_LEVEL, LoggerLevel.INFO.name());
-        setLevel(LoggerLevel.valueOf(levelName));
-
-        Runtime.getRuntime().addShutdownHook(new Thread()
+        SYSTEM_PROPERTY_LEVELS = Collections.unmodifiableMap(LevelsFileWatcher.parseLevels(System.getProperties(),
+                PROPERTY_LOGGER_LEVEL_PREFIX));
+        final Map<String, LoggerLevel> loggerLevels = new HashMap<String, LoggerLevel>();
+        final String levelsFilePath = System.getProperty(PROPERTY_LEVELS_FILE);
+        LevelsFileWatcher levelsFileWatcher = null;
+        if (levelsFilePath != null)
         {
-            @Override
-            public void run()
+            final File levelsFile = new File(levelsFilePath);
+            final long levelsFileInterval = Long.getLong(PROPERTY_LEVELS_FILE_INTERVAL, DEFAULT_LEVELS_FILE_INTERVAL);
+            if (levelsFileInterval > 0)
             {
-                OUTPUT_EXECUTOR.shutdown();
-                if (fileDestination != null)
+                // Created before the file is read so that no change is missed
+                levelsFileWatcher = new LevelsFileWatcher(levelsFile, levelsFileInterval)
                 {
-                    try
+                    @Override
+                    protected void levelsChanged(final Map<String, LoggerLevel> levels)
                     {
-                        fileDestination.close();
+                        setFileLevels(levels);
                     }
-                    catch (final Throwable t)
+
+                    @Override
+                    protected void error(final Exception e)
                     {
-                        t.printStackTrace(consoleDestination);
+                        e.printStackTrace(configuration.consoleDestination());
                     }
+                };
+            }
+            try
+            {
+                loggerLevels.putAll(LevelsFileWatcher.readLevels(levelsFile));
+            }
+            catch (final Exception e)
+            {
+                // Reported as by the watcher, the levels are applied once the
+                // file is fixed
+                e.printStackTrace();
+            }
+        }
+        loggerLevels.putAll(SYSTEM_PROPERTY_LEVELS);
+        final LevelHierarchy levels = new LevelHierarchy(LoggerLevel.valueOf(levelName), loggerLevels);
+        final LoggerLevel consoleLevel = LoggerLevel.valueOf(System.getProperty(PROPERTY_CONSOLE_LEVEL,
+                LoggerLevel.TRACE.name()));
+        final OverflowPolicy overflowPolicy = OverflowPolicy.valueOf(System.getProperty(PROPERTY_OVERFLOW_POLICY,
+                OverflowPolicy.BLOCK.name()));
+        final LoggerLevel overflowLevel = LoggerLevel.valueOf(System.getProperty(PROPERTY_OVERFLOW_LEVEL,
+                LoggerLevel.WARN.name()));
+        configuration = new SimpleLoggerConfiguration(levels, consoleLevel, System.err, getStandardErrorCharset(),
+                outputDirectory, ManagementFactory.getRuntimeMXBean().getName(), overflowPolicy, overflowLevel);
+
+        if (levelsFileWatcher != null)
+        {
+            levelsFileWatcher.start(SimpleLoggerManager.class.getSimpleName() + ".levels");
+        }
+
+        if (Boolean.parseBoolean(System.getProperty(PROPERTY_JMX, "true")))
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(METRICS, new ObjectName(METRICS_OBJECT_NAME));
+            }
+            catch (final Exception e)
+            {
+                // Logging still works without metrics, for instance if another
+                // class loader already registered them
+                e.printStackTrace(configuration.consoleDestination());
+            }
+        }
+
+        OUTPUT_THREAD = new Thread(new OutputWriter(), SimpleLoggerManager.class.getSimpleName() + ".output");
+        OUTPUT_THREAD.setDaemon(true);
+        OUTPUT_THREAD.setPriority(Thread.MAX_PRIORITY);
+        OUTPUT_THREAD.start();
+
+        final Thread archiverThread = new Thread(ARCHIVER, SimpleLoggerManager.class.getSimpleName() + ".archiver");
+        archiverThread.setDaemon(true);
+        archiverThread.setPriority(Thread.MIN_PRIORITY);
+        archiverThread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread()
+        {
+            @Override
+            public void run()
+            {
+                running = false;
+                LockSupport.unpark(OUTPUT_THREAD);
+                try
+                {
+                    OUTPUT_THREAD.join(SHUTDOWN_TIMEOUT);
+                }
+                catch (final InterruptedException e)
+                {
+                    // The output thread closes the file once done
                 }
+
+                // Logging threads must not wait for a stuck output thread
+                // while the JVM exits
+                OUTPUT_BUFFER.close();
             }
         });
     }
 
-    private static File getNewLogFile(final String fileNamePrefix)
+    /**
+     * Returns the charset {@code System.err} encodes characters with, which
+     * the JVM only exposes through system properties, if at all.
+     */
+    private static Charset getStandardErrorCharset()
     {
-        final File newLogFile = new File(outputDirectory, fileNamePrefix + "."
-                + Longs.toHexString(System.currentTimeMillis()) + ".log").getAbsoluteFile();
-        if (!newLogFile.exists())
+        for (final String property : new String[] { "stderr.encoding", "sun.stderr.encoding" })
         {
-            return newLogFile;
+            final String encoding = System.getProperty(property);
+            try
+            {
+                if (encoding != null && Charset.isSupported(encoding))
+                {
+                    return Charset.forName(encoding);
+                }
+            }
+            catch (final IllegalArgumentException e)
+            {
+                // Illegal charset name
+            }
         }
 
-        try
-        {
-            Thread.sleep(1);
-        }
-        catch (final InterruptedException e)
+        return Charset.defaultCharset();
+    }
+
+    private static LineEncoder newConsoleEncoder(final Charset charset)
+    {
+        return new LineEncoder(charset, LINE_DELIMITER, System.getProperty("line.separator"));
+    }
+
+    private static int getBufferSize(final int requestedSize)
+    {
+        Preconditions.checkArgument(requestedSize > 0, "%s = %s", PROPERTY_BUFFER_SIZE, requestedSize);
+        return Integer.highestOneBit(requestedSize) == requestedSize ? requestedSize : Integer
+                .highestOneBit(requestedSize) << 1;
+    }
+
+    private static File getNewLogFile(final String fileNamePrefix)
+    {
+        // The id is increased rather than waiting for the clock on collisions
+        for (long id = System.currentTimeMillis();; id++)
         {
-            // Ignore
+            final File newLogFile = new File(outputConfiguration.outputDirectory(), fileNamePrefix + "."
+                    + Longs.toHexString(id) + OUTPUT_FORMAT.fileSuffix()).getAbsoluteFile();
+            if (!newLogFile.exists() && !new File(newLogFile.getPath() + LogFileArchiver.COMPRESSED_FILE_SUFFIX)
+                    .exists())
+            {
+                return newLogFile;
+            }
         }
-        return getNewLogFile(fileNamePrefix);
     }
 
-    private static PrintStream getFileDestination(final Calendar time)
+    private static FileAppender getFileDestination(final long time) throws IOException
     {
-        final int dayOfTheWeek = time.get(Calendar.DAY_OF_WEEK);
-        if (dayOfTheWeek != currentFileDayOfTheWeek)
+        if (fileDestination == null || fileDestinationReset || time >= nextFileRotationTime
+                || (ROTATION_SIZE > 0 && fileDestinationSize >= ROTATION_SIZE))
         {
-            final File newLogFile = getNewLogFile(logFileNamePrefix + "."
-                    + new SimpleDateFormat("yyyy-MM-dd").format(time.getTime()));
+            fileDestinationReset = false;
+            final File previousFile = closeFileDestination();
+            if (previousFile != null)
+            {
+                ARCHIVER.archive(previousFile);
+            }
+
+            FILE_ROTATION_CALENDAR.setTimeInMillis(time);
+            final File newLogFile = getNewLogFile(outputConfiguration.logFileNamePrefix() + "."
+                    + new SimpleDateFormat("yyyy-MM-dd").format(FILE_ROTATION_CALENDAR.getTime()));
             assert !newLogFile.exists() : newLogFile;
-            try
+            fileDestination = OUTPUT_MODE.open(newLogFile, FILE_BUFFER_SIZE, SEGMENT_SIZE);
+            fileDestination.setLatencyHistograms(METRICS.flushLatencyHistogram(), METRICS.syncLatencyHistogram());
+            fileDestinationSize = 0;
+            if (OUTPUT_FORMAT == OutputFormat.TEXT && INDEX_INTERVAL > 0)
             {
-                fileDestination = new PrintStream(new FileOutputStream(newLogFile, true), true, Charset
-                        .defaultCharset().name());
+                fileIndex = new LogFileIndex(newLogFile);
+                lastIndexedOffset = -INDEX_INTERVAL;
             }
-            catch (final FileNotFoundException e)
+            if (OUTPUT_FORMAT == OutputFormat.BINARY)
             {
-                // Throw an Error here because this is fatal anyway
-                throw new Error(e);
+                BINARY_ENCODER.reset();
+                BINARY_ENCODER.startFile();
+                fileDestination.write(BINARY_ENCODER.array(), 0, BINARY_ENCODER.length());
+                fileDestinationSize += BINARY_ENCODER.length();
             }
-            catch (final UnsupportedEncodingException e)
+            ARCHIVER.setActiveFile(newLogFile);
+            ARCHIVER.cleanUp(newLogFile.getParentFile(), outputConfiguration.logFileNamePrefix());
+
+            if (ROTATION_INTERVAL > 0)
             {
-                // TODO Auto-generated catch block
-                throw new IllegalStateException(e);
+                nextFileRotationTime = time + ROTATION_INTERVAL;
+            }
+            else
+            {
+                // A new file is started on the next day
+                FILE_ROTATION_CALENDAR.set(Calendar.HOUR_OF_DAY, 0);
+                FILE_ROTATION_CALENDAR.set(Calendar.MINUTE, 0);
+                FILE_ROTATION_CALENDAR.set(Calendar.SECOND, 0);
+                FILE_ROTATION_CALENDAR.set(Calendar.MILLISECOND, 0);
+                FILE_ROTATION_CALENDAR.add(Calendar.DAY_OF_MONTH, 1);
+                nextFileRotationTime = FILE_ROTATION_CALENDAR.getTimeInMillis();
             }
-            currentFileDayOfTheWeek = dayOfTheWeek;
         }
         return fileDestination;
     }
 
+    /**
+     * Closes the current log file, if any, and returns it.
+     */
+    private static File closeFileDestination() throws IOException
+    {
+        if (fileDestination == null)
+        {
+            return null;
+        }
+
+        final FileAppender previousFileDestination = fileDestination;
+        final LogFileIndex previousFileIndex = fileIndex;
+        fileDestination = null;
+        fileIndex = null;
+        try
+        {
+            previousFileDestination.close();
+        }
+        finally
+        {
+            if (previousFileIndex != null)
+            {
+                previousFileIndex.close();
+            }
+        }
+        return previousFileDestination.file();
+    }
+
+    /**
+     * Sets the level of the loggers that have no level set for any of their
+     * name prefixes.
+     * 
+     * @see #PROPERTY_LEVEL
+     */
     public static void setLevel(final LoggerLevel level)
     {
-        SimpleLoggerManager.level = level;
+        Preconditions.checkNotNull(level);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withLevels(configuration.levels().withRootLevel(level)));
+        }
+    }
+
+    /**
+     * Sets the level of the loggers whose name is the specified prefix or
+     * starts with it followed by a dot, unless a longer prefix matches. A
+     * {@code null} level removes the level set for the prefix.
+     * <p>
+     * Levels set this way are replaced when the levels file changes.
+     * 
+     * @see #PROPERTY_LOGGER_LEVEL_PREFIX
+     * @see #PROPERTY_LEVELS_FILE
+     */
+    public static void setLevel(final String loggerNamePrefix, final LoggerLevel level)
+    {
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withLevels(configuration.levels().withLevel(loggerNamePrefix, level)));
+        }
+    }
+
+    /**
+     * Returns the effective level of the specified logger.
+     */
+    public static LoggerLevel getLevel(final String loggerName)
+    {
+        return configuration.levels().getLevel(loggerName);
+    }
+
+    /**
+     * Replaces the levels set for prefixes with those of the levels file, on
+     * top of which the levels set with system properties still apply.
+     */
+    private static void setFileLevels(final Map<String, LoggerLevel> fileLevels)
+    {
+        final Map<String, LoggerLevel> levels = new HashMap<String, LoggerLevel>(fileLevels);
+        levels.putAll(SYSTEM_PROPERTY_LEVELS);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withLevels(configuration.levels().withLevels(levels)));
+        }
+    }
+
+    /**
+     * Sets the level from which events are also written to the console, on top
+     * of the level of the logger.
+     * 
+     * @see #PROPERTY_CONSOLE_LEVEL
+     */
+    public static void setConsoleLevel(final LoggerLevel consoleLevel)
+    {
+        Preconditions.checkNotNull(consoleLevel);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withConsoleLevel(consoleLevel));
+        }
     }
 
+    /**
+     * Sets what logging threads do when the output buffer is full.
+     * 
+     * @see #PROPERTY_OVERFLOW_POLICY
+     */
+    public static void setOverflowPolicy(final OverflowPolicy overflowPolicy)
+    {
+        Preconditions.checkNotNull(overflowPolicy);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withOverflowPolicy(overflowPolicy));
+        }
+    }
+
+    /**
+     * Sets the level from which events are never dropped with
+     * {@link OverflowPolicy#DROP_BELOW_LEVEL}.
+     * 
+     * @see #PROPERTY_OVERFLOW_LEVEL
+     */
+    public static void setOverflowLevel(final LoggerLevel overflowLevel)
+    {
+        Preconditions.checkNotNull(overflowLevel);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withOverflowLevel(overflowLevel));
+        }
+    }
+
+    /**
+     * Returns the number of events dropped so far because the output buffer
+     * was full.
+     * 
+     * @see OverflowPolicy
+     */
+    public static long getDroppedEventCount()
+    {
+        return DROPPED_EVENTS.get();
+    }
+
+    /**
+     * Returns the number of events discarded so far by the level of their
+     * logger, or -1 if they are not counted.
+     * 
+     * @see #PROPERTY_METRICS_SUPPRESSED
+     */
+    public static long getSuppressedEventCount()
+    {
+        if (!COUNT_SUPPRESSED_EVENTS)
+        {
+            return -1;
+        }
+
+        long suppressedEvents = 0;
+        synchronized (CONFIGURATION_LOCK)
+        {
+            for (final SimpleDelegateLogger delegateLogger : DELEGATES.keySet())
+            {
+                suppressedEvents += delegateLogger.suppressedEvents.get();
+            }
+        }
+        return suppressedEvents;
+    }
+
+    /**
+     * Returns the metrics of the output pipeline, which are also registered
+     * as an MBean unless {@link #PROPERTY_JMX} is set to {@code false}.
+     */
+    public static SimpleLoggerMetricsMXBean getMetrics()
+    {
+        return METRICS;
+    }
+
+    /**
+     * Sets the console destination, which is assumed to encode characters
+     * with the default charset like a {@link PrintStream} created without an
+     * explicit encoding.
+     */
     public static void setDestination(final PrintStream destination)
     {
-        SimpleLoggerManager.consoleDestination = Preconditions.checkNotNull(destination);
+        setDestination(destination, Charset.defaultCharset());
+    }
+
+    /**
+     * Sets the console destination and the charset it encodes characters
+     * with.
+     */
+    public static void setDestination(final PrintStream destination, final Charset charset)
+    {
+        Preconditions.checkNotNull(destination);
+        Preconditions.checkNotNull(charset);
+        synchronized (CONFIGURATION_LOCK)
+        {
+            setConfiguration(configuration.withConsoleDestination(destination, charset));
+        }
     }
 
     public static void setLogFileNamePrefix(final String logFileNamePrefix)
     {
-        if (!SimpleLoggerManager.logFileNamePrefix.equals(logFileNamePrefix))
+        Preconditions.checkNotNull(logFileNamePrefix);
+        synchronized (CONFIGURATION_LOCK)
         {
-            SimpleLoggerManager.logFileNamePrefix = logFileNamePrefix;
-            // Reset the current log file in case it was already setup
-            fileDestination = null;
+            setConfiguration(configuration.withLogFileNamePrefix(logFileNamePrefix));
         }
     }
 
     public static void setOutputDirectory(final File outputDirectory)
     {
-        if (SimpleLoggerManager.outputDirectory == null || !SimpleLoggerManager.outputDirectory.equals(outputDirectory))
+        final File checkedOutputDirectory = outputDirectory == null ? null : checkOutputDirectory(outputDirectory);
+        synchronized (CONFIGURATION_LOCK)
         {
-            if (outputDirectory != null)
+            setConfiguration(configuration.withOutputDirectory(checkedOutputDirectory));
+        }
+    }
+
+    private static File checkOutputDirectory(final File outputDirectory)
+    {
+        final File absoluteOutputDirectory = outputDirectory.getAbsoluteFile();
+        if (!absoluteOutputDirectory.exists() && !absoluteOutputDirectory.mkdirs())
+        {
+            throw new IllegalStateException("Cannot create directory: " + absoluteOutputDirectory);
+        }
+        if (!absoluteOutputDirectory.isDirectory())
+        {
+            throw new IllegalStateException("Not a directory: " + absoluteOutputDirectory);
+        }
+        if (!absoluteOutputDirectory.canWrite())
+        {
+            throw new IllegalStateException("Cannot write to directory: " + absoluteOutputDirectory);
+        }
+        return absoluteOutputDirectory;
+    }
+
+    /**
+     * Publishes a new configuration. The level of every existing logger is
+     * updated once if the levels changed, so that checking whether a level is
+     * enabled needs no lookup. The output thread picks up the other changes
+     * between two batches.
+     */
+    private static void setConfiguration(final SimpleLoggerConfiguration newConfiguration)
+    {
+        assert Thread.holdsLock(CONFIGURATION_LOCK);
+        final LevelHierarchy previousLevels = configuration.levels();
+        configuration = newConfiguration;
+        if (newConfiguration.levels() != previousLevels)
+        {
+            for (final SimpleDelegateLogger delegateLogger : DELEGATES.keySet())
             {
-                if (!outputDirectory.isAbsolute())
-                {
-                    setOutputDirectory(outputDirectory.getAbsoluteFile());
-                }
-                if (!outputDirectory.exists() && !outputDirectory.mkdirs())
-                {
-                    throw new IllegalStateException("Cannot create directory: " + outputDirectory);
-                }
-                if (!outputDirectory.isDirectory())
-                {
-                    throw new IllegalStateException("Not a directory: " + outputDirectory);
-                }
-                if (!outputDirectory.canWrite())
-                {
-                    throw new IllegalStateException("Cannot write to directory: " + outputDirectory);
-                }
+                delegateLogger.level = newConfiguration.levels().getLevel(delegateLogger.name);
             }
-
-            SimpleLoggerManager.outputDirectory = outputDirectory;
-            fileDestination = null;
+            levelsChanged();
         }
     }
 
@@ -210,73 +662,570 @@ public final class SimpleLoggerManager extends LoggerManager
         return ++eventId;
     }
 
-    private static void log(final String loggerName, final LoggerLevel level, final Object message)
+    private static void log(final String loggerName, final LoggerLevel level, final CharSequence message)
+    {
+        publish(configuration, loggerName, level, message, null, null, null);
+    }
+
+    /**
+     * Publishes an event to the output buffer, either as a rendered message or
+     * as a template with either the encoded values or the captured values of
+     * its place-holders.
+     */
+    private static void publish(final SimpleLoggerConfiguration configuration, final String loggerName,
+            final LoggerLevel level, final CharSequence message, final MessageTemplate template,
+            final BinaryOutput values, final Object[] placeholderValues)
     {
-        final long time = System.currentTimeMillis();
-        if (outputDirectory != null)
+        final boolean toFile = configuration.outputDirectory() != null;
+        final boolean toConsole = level.compareTo(configuration.consoleLevel()) >= 0;
+        if (!toFile && !toConsole)
+        {
+            return;
+        }
+
+        final DiagnosticContext context = DiagnosticContext.current();
+        if (OUTPUT_BUFFER.isClosed())
+        {
+            writeSynchronously(configuration.consoleDestination(), context, message, template, values,
+                    placeholderValues);
+            return;
+        }
+
+        final long sequence = configuration.overflowPolicy().claim(OUTPUT_BUFFER, level,
+                configuration.overflowLevel(), DROPPED_EVENTS);
+        if (sequence < 0)
         {
-            OUTPUT_EXECUTOR.execute(new Runnable()
+            if (OUTPUT_BUFFER.isClosed())
             {
-                @Override
-                public void run()
+                writeSynchronously(configuration.consoleDestination(), context, message, template, values,
+                        placeholderValues);
+            }
+            return;
+        }
+        try
+        {
+            // Read once the slot is claimed, as a logging thread may wait for
+            // the output thread to make room
+            final long time = System.currentTimeMillis();
+            final LogEvent event = OUTPUT_BUFFER.get(sequence);
+            event.set(time, level, loggerName, message);
+            event.toFile = toFile;
+            event.toConsole = toConsole;
+            event.context = context;
+            if (values != null)
+            {
+                event.template = template;
+                event.values.write(values.array(), 0, values.length());
+            }
+            else if (placeholderValues != null)
+            {
+                event.setPlaceholderValues(template, placeholderValues);
+            }
+        }
+        finally
+        {
+            OUTPUT_BUFFER.publish(sequence);
+        }
+
+        if (OUTPUT_BUFFER.isClosed())
+        {
+            // The output thread may be gone before draining this event
+            synchronized (SYNCHRONOUS_WRITER)
+            {
+                OUTPUT_BUFFER.drain(SYNCHRONOUS_WRITER, Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Writes an event logged once the output thread is gone, such as from a
+     * shutdown hook. The log file is closed by then, so that the message goes
+     * to the console whatever its level.
+     */
+    private static void writeSynchronously(final PrintStream destination, final DiagnosticContext context,
+            final CharSequence message, final MessageTemplate template, final BinaryOutput values,
+            final Object[] placeholderValues)
+    {
+        final StringBuilder buffer = new StringBuilder();
+        if (!context.isEmpty())
+        {
+            context.appendTo(buffer).append(' ');
+        }
+        if (values != null)
+        {
+            new BinaryInput(ByteBuffer.wrap(values.array(), 0, values.length())).appendMessage(buffer, template);
+        }
+        else if (placeholderValues != null)
+        {
+            DeferredMessage.render(buffer, template, placeholderValues);
+        }
+        else
+        {
+            buffer.append(message);
+        }
+        destination.println(buffer);
+    }
+
+    private static void writeEvent(final LogEvent event) throws IOException
+    {
+        if (OUTPUT_FORMAT == OutputFormat.BINARY)
+        {
+            // The file header must be written before the first event
+            final FileAppender destination = getFileDestination(event.time);
+            BINARY_ENCODER.reset();
+            BINARY_ENCODER.encode(nextEventId(), event);
+            destination.write(BINARY_ENCODER.array(), 0, BINARY_ENCODER.length());
+            fileDestinationSize += BINARY_ENCODER.length();
+            METRICS.fileBytesWritten(BINARY_ENCODER.length());
+            return;
+        }
+
+        final long eventId = nextEventId();
+        LINE_ENCODER.reset();
+        LINE_ENCODER.encode(eventId, event);
+        if (LINE_ENCODER.length() > 0)
+        {
+            final FileAppender destination = getFileDestination(event.time);
+            if (fileIndex != null && fileDestinationSize - lastIndexedOffset >= INDEX_INTERVAL)
+            {
+                fileIndex.add(fileDestinationSize, event.time, eventId);
+                lastIndexedOffset = fileDestinationSize;
+            }
+            destination.write(LINE_ENCODER.array(), 0, LINE_ENCODER.length());
+            fileDestinationSize += LINE_ENCODER.length();
+            METRICS.fileBytesWritten(LINE_ENCODER.length());
+        }
+    }
+
+    /**
+     * Drains the output buffer from the output thread.
+     */
+    private static final class OutputWriter implements Runnable, LogEventRingBuffer.Handler
+    {
+        private final LogEvent droppedEventsReport = new LogEvent();
+        private long reportedDroppedEvents;
+        private long lastReportTime = System.nanoTime();
+        private long lastEventTime;
+
+        @Override
+        public void run()
+        {
+            outputConfiguration = configuration;
+            consoleEncoder = newConsoleEncoder(outputConfiguration.consoleCharset());
+            int idleCount = 0;
+            try
+            {
+                while (running || OUTPUT_BUFFER.hasEvents())
                 {
-                    final Calendar date = Calendar.getInstance();
-                    date.setTimeInMillis(time);
-                    final StringBuilder linePrefix = new StringBuilder();
-                    linePrefix.append(Longs.toHexString(nextEventId()));
-                    linePrefix.append(LINE_DELIMITER);
-                    linePrefix.append(level.toRightPaddedString(5, " "));
-                    linePrefix.append(LINE_DELIMITER);
-                    linePrefix.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(date.getTime()));
-                    linePrefix.append(LINE_DELIMITER);
-                    linePrefix.append(loggerName);
-                    linePrefix.append(LINE_DELIMITER);
-
-                    for (final StringTokenizer t = new StringTokenizer(message.toString(), "\n"); t.hasMoreTokens();)
+                    applyConfiguration();
+                    reportDroppedEvents(false);
+                    METRICS.queueSize(OUTPUT_BUFFER.size());
+                    if (OUTPUT_BUFFER.drain(this, MAX_BATCH_SIZE) > 0)
                     {
-                        final String line = linePrefix + t.nextToken();
-                        getFileDestination(date).println(line);
+                        idleCount = 0;
+                    }
+                    else
+                    {
+                        idleCount++;
+                        commit();
+                        WAIT_STRATEGY.idle(OUTPUT_BUFFER, idleCount);
                     }
                 }
-            });
+            }
+            finally
+            {
+                // Logging threads write their events themselves from now on
+                OUTPUT_BUFFER.close();
+            }
+
+            // Events published before the logging threads noticed, those that
+            // are still being published are drained by their logging thread
+            while (OUTPUT_BUFFER.hasEvents())
+            {
+                OUTPUT_BUFFER.drain(this, MAX_BATCH_SIZE);
+            }
+            reportDroppedEvents(true);
+
+            try
+            {
+                closeFileDestination();
+            }
+            catch (final Throwable t)
+            {
+                t.printStackTrace(outputConfiguration.consoleDestination());
+            }
         }
-        consoleDestination.println(message);
+
+        /**
+         * Picks up the latest configuration. This is only done between two
+         * batches so that the events of a batch are written consistently, and
+         * before the console output of a batch is flushed so that it goes to
+         * the latest destination.
+         */
+        private void applyConfiguration()
+        {
+            final SimpleLoggerConfiguration latestConfiguration = configuration;
+            if (latestConfiguration == outputConfiguration)
+            {
+                return;
+            }
+
+            if (latestConfiguration.consoleDestination() != outputConfiguration.consoleDestination()
+                    || !latestConfiguration.consoleCharset().equals(consoleEncoder.charset()))
+            {
+                // Messages encoded so far go to the previous destination
+                flushConsole();
+                if (!latestConfiguration.consoleCharset().equals(consoleEncoder.charset()))
+                {
+                    consoleEncoder = newConsoleEncoder(latestConfiguration.consoleCharset());
+                }
+            }
+
+            if (outputConfiguration != null && !latestConfiguration.hasSameLogFiles(outputConfiguration))
+            {
+                fileDestinationReset = true;
+                if (latestConfiguration.outputDirectory() == null)
+                {
+                    try
+                    {
+                        final File previousFile = closeFileDestination();
+                        if (previousFile != null)
+                        {
+                            ARCHIVER.archive(previousFile);
+                        }
+                    }
+                    catch (final Throwable t)
+                    {
+                        t.printStackTrace(latestConfiguration.consoleDestination());
+                    }
+                }
+            }
+            outputConfiguration = latestConfiguration;
+        }
+
+        /**
+         * Writes how many events were dropped since the previous report, at
+         * most once per {@link #DROPPED_EVENTS_REPORT_INTERVAL} unless forced.
+         */
+        private void reportDroppedEvents(final boolean force)
+        {
+            final long droppedEvents = DROPPED_EVENTS.get();
+            if (droppedEvents == reportedDroppedEvents)
+            {
+                return;
+            }
+
+            final long now = System.nanoTime();
+            if (!force && now - lastReportTime < DROPPED_EVENTS_REPORT_INTERVAL)
+            {
+                return;
+            }
+
+            droppedEventsReport.set(System.currentTimeMillis(), LoggerLevel.WARN, SimpleLoggerManager.class.getName(),
+                    (droppedEvents - reportedDroppedEvents) + " events dropped");
+            droppedEventsReport.toFile = true;
+            droppedEventsReport.toConsole = LoggerLevel.WARN.compareTo(outputConfiguration.consoleLevel()) >= 0;
+            onEvent(droppedEventsReport);
+            flushConsole();
+            droppedEventsReport.clear();
+            reportedDroppedEvents = droppedEvents;
+            lastReportTime = now;
+        }
+
+        @Override
+        public void onEvent(final LogEvent event)
+        {
+            METRICS.eventWritten(event);
+
+            // Logging threads read the clock after claiming their slots but
+            // not atomically, and the clock itself may go backwards, while the
+            // index of the log file expects ordered times
+            if (event.time < lastEventTime)
+            {
+                event.time = lastEventTime;
+            }
+            lastEventTime = event.time;
+
+            try
+            {
+                if (event.placeholderValueCount > 0)
+                {
+                    event.renderPlaceholderValues();
+                }
+
+                // File output may have been disabled since the event was published
+                if (event.toFile && outputConfiguration.outputDirectory() != null)
+                {
+                    writeEvent(event);
+                }
+                if (event.toConsole)
+                {
+                    if (event.template != null)
+                    {
+                        event.message.setLength(0);
+                        new BinaryInput(ByteBuffer.wrap(event.values.array(), 0, event.values.length()))
+                                .appendMessage(event.message, event.template);
+                    }
+                    consoleEncoder.encodeMessage(event);
+                }
+            }
+            catch (final Throwable t)
+            {
+                t.printStackTrace(outputConfiguration.consoleDestination());
+            }
+        }
+
+        @Override
+        public void onEndOfBatch()
+        {
+            applyConfiguration();
+            flushConsole();
+            commit();
+        }
+
+        /**
+         * Writes the messages of the current batch to the console at once.
+         */
+        private void flushConsole()
+        {
+            if (consoleEncoder.length() == 0)
+            {
+                return;
+            }
+
+            try
+            {
+                final PrintStream destination = outputConfiguration.consoleDestination();
+                destination.write(consoleEncoder.array(), 0, consoleEncoder.length());
+                METRICS.consoleBytesWritten(consoleEncoder.length());
+                destination.flush();
+            }
+            finally
+            {
+                consoleEncoder.reset();
+            }
+        }
+
+        private void commit()
+        {
+            if (fileDestination == null)
+            {
+                return;
+            }
+
+            try
+            {
+                FLUSH_POLICY.commit(fileDestination, FLUSH_INTERVAL);
+            }
+            catch (final Throwable t)
+            {
+                t.printStackTrace(outputConfiguration.consoleDestination());
+            }
+        }
+    }
+
+    private static void log(final String loggerName, final LoggerLevel level, final MessageTemplate template,
+            final Object[] args)
+    {
+        final SimpleLoggerConfiguration configuration = SimpleLoggerManager.configuration;
+        if (OUTPUT_FORMAT == OutputFormat.BINARY && configuration.outputDirectory() != null)
+        {
+            logValues(configuration, loggerName, level, template, args);
+            return;
+        }
+
+        if (template.isConstant())
+        {
+            publish(configuration, loggerName, level, template.literal(0), null, null, null);
+            return;
+        }
+
+        if (DEFERRED_FORMATTING)
+        {
+            logDeferred(configuration, loggerName, level, template, args);
+            return;
+        }
+
+        final StringBuilder buffer = MessageBuffers.acquire();
+        try
+        {
+            publish(configuration, loggerName, level, template.appendTo(buffer, args), null, null, null);
+        }
+        finally
+        {
+            MessageBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Publishes the values of the place-holders rather than the rendered
+     * message, which is only rendered by the output thread if the event goes
+     * to the console.
+     */
+    private static void logValues(final SimpleLoggerConfiguration configuration, final String loggerName,
+            final LoggerLevel level, final MessageTemplate template, final Object[] args)
+    {
+        // The buffer is taken out of the thread-local while in use in case an
+        // argument logs something itself when formatted
+        BinaryOutput values = VALUES_BUFFER.get();
+        VALUES_BUFFER.set(null);
+        if (values == null)
+        {
+            values = new BinaryOutput();
+        }
+        try
+        {
+            values.reset();
+            values.writePlaceholderValues(template, args);
+            publish(configuration, loggerName, level, "", template, values, null);
+        }
+        finally
+        {
+            VALUES_BUFFER.set(values);
+        }
+    }
+
+    /**
+     * Publishes the values of the place-holders so that the message is
+     * rendered by the output thread.
+     * 
+     * @see #PROPERTY_DEFERRED_FORMATTING
+     * @see DeferredMessage
+     */
+    private static void logDeferred(final SimpleLoggerConfiguration configuration, final String loggerName,
+            final LoggerLevel level, final MessageTemplate template, final Object[] args)
+    {
+        // The array is taken out of the thread-local while in use in case an
+        // argument logs something itself when formatted
+        Object[] placeholderValues = PLACEHOLDER_VALUES.get();
+        PLACEHOLDER_VALUES.set(null);
+        if (placeholderValues == null || placeholderValues.length < template.placeholderCount())
+        {
+            placeholderValues = new Object[Math.max(template.placeholderCount(), INITIAL_PLACEHOLDER_VALUES_CAPACITY)];
+        }
+        try
+        {
+            DeferredMessage.capture(template, args, placeholderValues);
+            publish(configuration, loggerName, level, "", template, null, placeholderValues);
+        }
+        finally
+        {
+            Arrays.fill(placeholderValues, 0, template.placeholderCount(), null);
+            PLACEHOLDER_VALUES.set(placeholderValues);
+        }
+    }
+
+    /**
+     * Levels are only cached by the facade when suppressed events are not
+     * counted, as suppressed events would otherwise never reach the delegate
+     * loggers.
+     */
+    @Override
+    public boolean isLevelCachingSupported()
+    {
+        return !COUNT_SUPPRESSED_EVENTS;
     }
 
     @Override
-    public DelegateLogger getDelegateLogger(final String name)
+    protected DelegateLogger newDelegateLogger(final String name)
     {
-        return new DelegateLogger()
+        final SimpleDelegateLogger delegateLogger = new SimpleDelegateLogger(name, true);
+        synchronized (CONFIGURATION_LOCK)
         {
-            @Override
-            public String loggerName()
-            {
-                return name;
-            }
+            // Registered before resolving the level so that a concurrent level
+            // change cannot be missed
+            DELEGATES.put(delegateLogger, Boolean.TRUE);
+            delegateLogger.level = configuration.levels().getLevel(name);
+        }
+        return delegateLogger;
+    }
 
-            @Override
-            public void log(final LoggerLevel level, final Object message)
+    @Override
+    protected DelegateLogger newUncachedDelegateLogger(final String name)
+    {
+        // Not registered, which would take the configuration lock on each call
+        return new SimpleDelegateLogger(name, false);
+    }
+
+    private final class SimpleDelegateLogger implements RenderingDelegateLogger
+    {
+        private final String name;
+        private final boolean registered;
+        private volatile LoggerLevel level;
+        private volatile LevelHierarchy resolvedLevels;
+        private final AtomicLong suppressedEvents = new AtomicLong();
+
+        SimpleDelegateLogger(final String name, final boolean registered)
+        {
+            this.name = name;
+            this.registered = registered;
+        }
+
+        /**
+         * Returns the level of this logger, which is updated on level changes
+         * if registered, or resolved again once the levels have changed
+         * otherwise.
+         */
+        private LoggerLevel level()
+        {
+            if (registered)
             {
-                SimpleLoggerManager.log(name, level, message);
+                return level;
             }
 
-            @Override
-            public boolean isLevelEnabled(final LoggerLevel level)
+            final LevelHierarchy levels = configuration.levels();
+            if (levels != resolvedLevels)
             {
-                return level.compareTo(SimpleLoggerManager.level) >= 0;
+                level = levels.getLevel(name);
+                resolvedLevels = levels;
             }
+            return level;
+        }
 
-            @Override
-            public DelegateLogger getChild(final String childName)
+        @Override
+        public String loggerName()
+        {
+            return name;
+        }
+
+        @Override
+        public void log(final LoggerLevel level, final Object message)
+        {
+            SimpleLoggerManager.log(name, level, String.valueOf(message));
+        }
+
+        @Override
+        public void log(final LoggerLevel level, final MessageTemplate template, final Object[] args)
+        {
+            SimpleLoggerManager.log(name, level, template, args);
+        }
+
+        @Override
+        public boolean isLevelEnabled(final LoggerLevel level)
+        {
+            if (level.compareTo(level()) >= 0)
             {
-                return getDelegateLogger(name + "." + childName);
+                return true;
             }
 
-            @Override
-            public void error(final Throwable t)
+            // Folded away by the compiler unless suppressed events are counted
+            if (COUNT_SUPPRESSED_EVENTS)
             {
-                t.printStackTrace(consoleDestination);
+                suppressedEvents.incrementAndGet();
             }
-        };
+            return false;
+        }
+
+        @Override
+        public DelegateLogger getChild(final String childName)
+        {
+            return getDelegateLogger(name + "." + childName);
+        }
+
+        @Override
+        public void error(final Throwable t)
+        {
+            t.printStackTrace(configuration.consoleDestination());
+        }
     }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Metrics of the {@link SimpleLoggerManager} output pipeline.
+ * <p>
+ * Counters are only updated by the output thread, so that they cost the
+ * logging threads nothing.
+ * 
+ * @author Herve Quiroz
+ */
+final class SimpleLoggerMetrics implements SimpleLoggerMetricsMXBean
+{
+    static final String OTHER_LOGGERS = "<other>";
+
+    private static final int MAX_LOGGER_EVENT_COUNTS = 4096;
+
+    private final LogEventRingBuffer buffer;
+    private final AtomicLongArray eventCounts = new AtomicLongArray(LoggerLevel.values().length);
+    private final AtomicLong queueHighWaterMark = new AtomicLong();
+    private final AtomicLong fileBytesWritten = new AtomicLong();
+    private final AtomicLong consoleBytesWritten = new AtomicLong();
+    private final LatencyHistogram flushLatencies = new LatencyHistogram();
+    private final LatencyHistogram syncLatencies = new LatencyHistogram();
+    private final ConcurrentMap<String, AtomicLong> loggerEventCounts = new ConcurrentHashMap<String, AtomicLong>();
+    private volatile boolean loggerEventCountsEnabled;
+
+    SimpleLoggerMetrics(final LogEventRingBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    LatencyHistogram flushLatencyHistogram()
+    {
+        return flushLatencies;
+    }
+
+    LatencyHistogram syncLatencyHistogram()
+    {
+        return syncLatencies;
+    }
+
+    void eventWritten(final LogEvent event)
+    {
+        final int level = event.level.ordinal();
+        eventCounts.lazySet(level, eventCounts.get(level) + 1);
+
+        if (loggerEventCountsEnabled)
+        {
+            AtomicLong count = loggerEventCounts.get(event.loggerName);
+            if (count == null)
+            {
+                // Once the map is full, the events of new loggers are counted
+                // together
+                final String key = loggerEventCounts.size() < MAX_LOGGER_EVENT_COUNTS ? event.loggerName
+                        : OTHER_LOGGERS;
+                count = loggerEventCounts.get(key);
+                if (count == null)
+                {
+                    count = new AtomicLong();
+                    loggerEventCounts.put(key, count);
+                }
+            }
+            count.lazySet(count.get() + 1);
+        }
+    }
+
+    void queueSize(final int size)
+    {
+        if (size > queueHighWaterMark.get())
+        {
+            queueHighWaterMark.lazySet(size);
+        }
+    }
+
+    void fileBytesWritten(final int length)
+    {
+        fileBytesWritten.lazySet(fileBytesWritten.get() + length);
+    }
+
+    void consoleBytesWritten(final int length)
+    {
+        consoleBytesWritten.lazySet(consoleBytesWritten.get() + length);
+    }
+
+    @Override
+    public Map<String, Long> getEventCounts()
+    {
+        final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (final LoggerLevel level : LoggerLevel.values())
+        {
+            counts.put(level.name(), eventCounts.get(level.ordinal()));
+        }
+        return counts;
+    }
+
+    @Override
+    public long getSuppressedEventCount()
+    {
+        return SimpleLoggerManager.getSuppressedEventCount();
+    }
+
+    @Override
+    public long getDroppedEventCount()
+    {
+        return SimpleLoggerManager.getDroppedEventCount();
+    }
+
+    @Override
+    public int getQueueDepth()
+    {
+        return buffer.size();
+    }
+
+    @Override
+    public int getQueueCapacity()
+    {
+        return buffer.capacity();
+    }
+
+    @Override
+    public int getQueueHighWaterMark()
+    {
+        return (int) queueHighWaterMark.get();
+    }
+
+    @Override
+    public long getFileBytesWritten()
+    {
+        return fileBytesWritten.get();
+    }
+
+    @Override
+    public long getConsoleBytesWritten()
+    {
+        return consoleBytesWritten.get();
+    }
+
+    @Override
+    public Map<Long, Long> getFlushLatencies()
+    {
+        return flushLatencies.counts();
+    }
+
+    @Override
+    public Map<Long, Long> getSyncLatencies()
+    {
+        return syncLatencies.counts();
+    }
+
+    @Override
+    public boolean isLoggerEventCountsEnabled()
+    {
+        return loggerEventCountsEnabled;
+    }
+
+    @Override
+    public void setLoggerEventCountsEnabled(final boolean loggerEventCountsEnabled)
+    {
+        if (loggerEventCountsEnabled && !this.loggerEventCountsEnabled)
+        {
+            loggerEventCounts.clear();
+        }
+        this.loggerEventCountsEnabled = loggerEventCountsEnabled;
+    }
+
+    @Override
+    public Map<String, Long> getLoggerEventCounts()
+    {
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        for (final Map.Entry<String, AtomicLong> count : loggerEventCounts.entrySet())
+        {
+            counts.put(count.getKey(), count.getValue().get());
+        }
+        return counts;
+    }
+}
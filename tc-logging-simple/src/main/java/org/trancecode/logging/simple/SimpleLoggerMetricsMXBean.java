@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Map;
+
+/**
+ * Metrics of the {@link SimpleLoggerManager} output pipeline, registered as
+ * <code>org.trancecode.logging:type=SimpleLoggerManager</code>.
+ * 
+ * @author Herve Quiroz
+ */
+public interface SimpleLoggerMetricsMXBean
+{
+    /**
+     * Returns the number of events written so far, indexed by level.
+     */
+    Map<String, Long> getEventCounts();
+
+    /**
+     * Returns the number of events discarded by the level of their logger, if
+     * {@link SimpleLoggerManager#PROPERTY_METRICS_SUPPRESSED} is set, or -1.
+     */
+    long getSuppressedEventCount();
+
+    long getDroppedEventCount();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    int getQueueHighWaterMark();
+
+    long getFileBytesWritten();
+
+    long getConsoleBytesWritten();
+
+    /**
+     * Returns the durations of the writes of buffered bytes to the log file,
+     * indexed by the exclusive upper bound of each bucket in nanoseconds.
+     */
+    Map<Long, Long> getFlushLatencies();
+
+    /**
+     * Returns the durations of the synchronizations of the log file with the
+     * storage device, indexed by the exclusive upper bound of each bucket in
+     * nanoseconds.
+     */
+    Map<Long, Long> getSyncLatencies();
+
+    boolean isLoggerEventCountsEnabled();
+
+    /**
+     * Enables counting the events written for each logger, which costs a
+     * lookup per event on the output thread.
+     */
+    void setLoggerEventCountsEnabled(boolean loggerEventCountsEnabled);
+
+    /**
+     * Returns the number of events written for each logger since counting
+     * was enabled.
+     */
+    Map<String, Long> getLoggerEventCounts();
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the output thread of {@link SimpleLoggerManager} waits for new log
+ * events when there is nothing left to write.
+ * 
+ * @author Herve Quiroz
+ * @see SimpleLoggerManager#PROPERTY_WAIT_STRATEGY
+ */
+public enum WaitStrategy
+{
+    /**
+     * Parks the output thread until a logging thread publishes an event. This
+     * uses no CPU when idle but costs an unpark on the logging thread that wakes
+     * the output thread up.
+     */
+    BLOCKING
+    {
+        @Override
+        void idle(final LogEventRingBuffer buffer, final int idleCount)
+        {
+            buffer.await(MAX_IDLE_NANOS);
+        }
+    },
+
+    /**
+     * Spins, then yields, then sleeps for short periods.
+     */
+    SLEEPING
+    {
+        @Override
+        void idle(final LogEventRingBuffer buffer, final int idleCount)
+        {
+            if (idleCount > SPIN_TRIES + YIELD_TRIES)
+            {
+                LockSupport.parkNanos(SLEEP_NANOS);
+            }
+            else if (idleCount > SPIN_TRIES)
+            {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spins, then yields the processor. Lower latency than {@link #SLEEPING}
+     * at the cost of a busy output thread.
+     */
+    YIELDING
+    {
+        @Override
+        void idle(final LogEventRingBuffer buffer, final int idleCount)
+        {
+            if (idleCount > SPIN_TRIES)
+            {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Keeps polling. Only suitable when a processor can be dedicated to the
+     * output thread.
+     */
+    BUSY_SPIN
+    {
+        @Override
+        void idle(final LogEventRingBuffer buffer, final int idleCount)
+        {
+            // Poll again right away
+        }
+    };
+
+    static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Waits for new events after {@code idleCount} consecutive unsuccessful
+     * attempts to drain the buffer.
+     */
+    abstract void idle(LogEventRingBuffer buffer, int idleCount);
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.LoggerLevel;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * Tests for {@link BinaryLogReader} and {@link BinaryEncoder}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class BinaryLogReaderTest
+{
+    private static void encode(final BinaryEncoder encoder, final ByteArrayOutputStream file, final long eventId,
+            final String loggerName, final String message, final Object... args)
+    {
+        encode(encoder, file, DiagnosticContext.EMPTY, eventId, loggerName, message, args);
+    }
+
+    private static void encode(final BinaryEncoder encoder, final ByteArrayOutputStream file,
+            final DiagnosticContext context, final long eventId, final String loggerName, final String message,
+            final Object... args)
+    {
+        final LogEvent event = new LogEvent();
+        event.context = context;
+        event.set(1286208123456L + eventId, LoggerLevel.INFO, loggerName, message);
+        if (args.length > 0)
+        {
+            event.template = MessageTemplate.parse(message);
+            event.values.writePlaceholderValues(event.template, args);
+        }
+        encoder.reset();
+        encoder.encode(eventId, event);
+        file.write(encoder.array(), 0, encoder.length());
+    }
+
+    @Test
+    public void read() throws IOException
+    {
+        final BinaryEncoder encoder = new BinaryEncoder();
+        final ByteArrayOutputStream file = new ByteArrayOutputStream();
+        encoder.startFile();
+        file.write(encoder.array(), 0, encoder.length());
+
+        encode(encoder, file, 1, "a", "raw {message}");
+        encode(encoder, file, 2, "b", "values {} {} {} {} {}", 1, 2L, 3.5d, 'c', true);
+        encode(encoder, file, 3, "b", "values {} {} {} {} {}", -1, null, "caf\u00e9 \ud83d\ude00", (short) 4,
+                (byte) -5);
+        encode(encoder, file, 4, "a", "size {size}", java.util.Arrays.asList(1, 2, 3));
+
+        final BinaryLogReader reader = new BinaryLogReader(new ByteArrayInputStream(file.toByteArray()));
+        Assert.assertEquals(reader.next().toString(), "1 INFO 1286208123457 a raw {message}");
+        Assert.assertEquals(reader.next().toString(), "2 INFO 1286208123458 b values 1 2 3.5 c true");
+        Assert.assertEquals(reader.next().message(), "values -1 null caf\u00e9 \ud83d\ude00 4 -5");
+        Assert.assertEquals(reader.next().message(), "size 3");
+        Assert.assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void readContext() throws IOException
+    {
+        final BinaryEncoder encoder = new BinaryEncoder();
+        final ByteArrayOutputStream file = new ByteArrayOutputStream();
+        encoder.startFile();
+        file.write(encoder.array(), 0, encoder.length());
+        final DiagnosticContext context = DiagnosticContext.EMPTY.withValue("request", "12");
+        encode(encoder, file, context, 1, "a", "first {}", 1);
+        encode(encoder, file, context, 2, "a", "second");
+        encode(encoder, file, 3, "a", "third");
+
+        final BinaryLogReader reader = new BinaryLogReader(new ByteArrayInputStream(file.toByteArray()));
+        Assert.assertEquals(reader.next().message(), "[request=12] first 1");
+        Assert.assertEquals(reader.next().message(), "[request=12] second");
+        Assert.assertEquals(reader.next().message(), "third");
+        Assert.assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void readNotBinary() throws IOException
+    {
+        new BinaryLogReader(new ByteArrayInputStream("0000000000000001::INFO ::".getBytes()));
+    }
+}
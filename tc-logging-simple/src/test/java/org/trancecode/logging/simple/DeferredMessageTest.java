@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+import org.trancecode.logging.spi.Loggers;
+import org.trancecode.logging.spi.MessageTemplate;
+
+/**
+ * Tests for {@link DeferredMessage}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class DeferredMessageTest
+{
+    @Test
+    public void isImmutable()
+    {
+        Assert.assertTrue(DeferredMessage.isImmutable(null));
+        Assert.assertTrue(DeferredMessage.isImmutable("a"));
+        Assert.assertTrue(DeferredMessage.isImmutable(1));
+        Assert.assertTrue(DeferredMessage.isImmutable(2.5));
+        Assert.assertTrue(DeferredMessage.isImmutable('c'));
+        Assert.assertFalse(DeferredMessage.isImmutable(TimeUnit.SECONDS));
+        Assert.assertFalse(DeferredMessage.isImmutable(BigDecimal.ONE));
+        Assert.assertFalse(DeferredMessage.isImmutable(new StringBuilder("a")));
+        Assert.assertFalse(DeferredMessage.isImmutable(new ArrayList<Object>()));
+    }
+
+    @Test
+    public void captureAndRender()
+    {
+        final MessageTemplate template = Loggers.getMessageTemplate("a {} b {} c {size} d {}");
+        final Integer number = 123;
+        final StringBuilder mutable = new StringBuilder("before");
+        final List<String> list = new ArrayList<String>();
+        list.add("x");
+        final Object[] values = new Object[template.placeholderCount()];
+        DeferredMessage.capture(template, new Object[] { number, mutable, list, null }, values);
+        mutable.setLength(0);
+        list.clear();
+
+        Assert.assertSame(values[0], number);
+        Assert.assertEquals(values[1], "before");
+        Assert.assertEquals(DeferredMessage.render(new StringBuilder(), template, values).toString(),
+                "a 123 b before c 1 d null");
+    }
+
+    @Test
+    public void renderPlaceholderValues()
+    {
+        final MessageTemplate template = Loggers.getMessageTemplate("{} and {}");
+        final LogEvent event = new LogEvent();
+        event.set(0, LoggerLevel.INFO, "test", "");
+        event.setPlaceholderValues(template, new Object[] { "one", 2, "unused" });
+        Assert.assertEquals(event.placeholderValueCount, 2);
+
+        event.renderPlaceholderValues();
+        Assert.assertEquals(event.message.toString(), "one and 2");
+        Assert.assertNull(event.template);
+        Assert.assertEquals(event.placeholderValueCount, 0);
+        Assert.assertNull(event.placeholderValues[0]);
+    }
+}
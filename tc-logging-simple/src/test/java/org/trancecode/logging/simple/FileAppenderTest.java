@@ -0,0 +1,97 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link FileAppender}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class FileAppenderTest
+{
+    private static byte[] read(final File file) throws IOException
+    {
+        final InputStream input = new FileInputStream(file);
+        try
+        {
+            final byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < bytes.length)
+            {
+                offset += input.read(bytes, offset, bytes.length - offset);
+            }
+            return bytes;
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    private static void write(final FileAppender appender) throws IOException
+    {
+        appender.write("abc".getBytes(), 0, 3);
+        appender.flush();
+        // Larger than the buffer
+        appender.write("0123456789abcdef".getBytes(), 2, 12);
+        appender.sync();
+        appender.write("!".getBytes(), 0, 1);
+        appender.close();
+        Assert.assertEquals(new String(read(appender.file())), "abc23456789abcd!");
+    }
+
+    private static File newFile() throws IOException
+    {
+        final File file = File.createTempFile(FileAppenderTest.class.getSimpleName(), ".log");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void writeChannel() throws IOException
+    {
+        final File file = newFile();
+        final FileAppender appender = new ChannelFileAppender(file, 8);
+        appender.write("abc".getBytes(), 0, 3);
+        Assert.assertEquals(file.length(), 0);
+        appender.flush();
+        Assert.assertEquals(file.length(), 3);
+        appender.close();
+
+        write(new ChannelFileAppender(newFile(), 8));
+    }
+
+    @Test
+    public void writeMapped() throws IOException
+    {
+        final File file = newFile();
+        final FileAppender appender = new MappedFileAppender(file, 8);
+        Assert.assertEquals(file.length(), 8);
+        appender.close();
+        Assert.assertEquals(file.length(), 0);
+
+        write(new MappedFileAppender(newFile(), 8));
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LatencyHistogramTest
+{
+    @Test
+    public void record()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertTrue(histogram.counts().isEmpty());
+
+        histogram.record(0);
+        histogram.record(-5);
+        histogram.record(1);
+        histogram.record(1000);
+        histogram.record(1023);
+        histogram.record(1024);
+        Assert.assertEquals(histogram.counts().toString(), "{1=2, 2=1, 1024=2, 2048=1}");
+    }
+}
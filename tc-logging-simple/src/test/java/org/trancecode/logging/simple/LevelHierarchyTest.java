@@ -0,0 +1,62 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LevelHierarchy}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LevelHierarchyTest
+{
+    @Test
+    public void getLevel()
+    {
+        final Map<String, LoggerLevel> levels = new HashMap<String, LoggerLevel>();
+        levels.put("com.foo", LoggerLevel.DEBUG);
+        levels.put("com.foo.bar", LoggerLevel.WARN);
+        final LevelHierarchy hierarchy = new LevelHierarchy(LoggerLevel.INFO, levels);
+
+        Assert.assertEquals(hierarchy.getLevel("com"), LoggerLevel.INFO);
+        Assert.assertEquals(hierarchy.getLevel("com.foo"), LoggerLevel.DEBUG);
+        Assert.assertEquals(hierarchy.getLevel("com.foo.Baz"), LoggerLevel.DEBUG);
+        Assert.assertEquals(hierarchy.getLevel("com.foo.bar"), LoggerLevel.WARN);
+        Assert.assertEquals(hierarchy.getLevel("com.foo.bar.Baz"), LoggerLevel.WARN);
+        Assert.assertEquals(hierarchy.getLevel("com.foobar"), LoggerLevel.INFO);
+    }
+
+    @Test
+    public void withLevel()
+    {
+        final LevelHierarchy hierarchy = new LevelHierarchy(LoggerLevel.INFO, new HashMap<String, LoggerLevel>())
+                .withLevel("com.foo", LoggerLevel.TRACE);
+        Assert.assertEquals(hierarchy.getLevel("com.foo.Bar"), LoggerLevel.TRACE);
+        Assert.assertEquals(hierarchy.withLevel("com.foo", null).getLevel("com.foo.Bar"), LoggerLevel.INFO);
+        Assert.assertEquals(hierarchy.withRootLevel(LoggerLevel.ERROR).getLevel("com.foo.Bar"), LoggerLevel.TRACE);
+        Assert.assertEquals(hierarchy.withRootLevel(LoggerLevel.ERROR).getLevel("org"), LoggerLevel.ERROR);
+        Assert.assertEquals(hierarchy.withLevels(Collections.singletonMap("com.bar", LoggerLevel.WARN)).getLevel(
+                "com.foo.Bar"), LoggerLevel.INFO);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.DiagnosticContext;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LineEncoder}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LineEncoderTest
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static String encode(final LineEncoder encoder, final long eventId, final long time,
+            final LoggerLevel level, final String message)
+    {
+        final LogEvent event = new LogEvent();
+        event.set(time, level, "org.example.Test", message);
+        encoder.reset();
+        encoder.encode(eventId, event);
+        return new String(encoder.array(), 0, encoder.length(), UTF_8);
+    }
+
+    private static String prefix(final long time, final String level)
+    {
+        return "000000000000002a::" + level + "::"
+                + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(time)) + "::org.example.Test::";
+    }
+
+    @Test
+    public void encode()
+    {
+        final LineEncoder encoder = new LineEncoder(UTF_8, "::", "\n");
+        final long time = 1286208123004L;
+        Assert.assertEquals(encode(encoder, 42, time, LoggerLevel.INFO, "hello"), prefix(time, "INFO ") + "hello\n");
+        Assert.assertEquals(encode(encoder, 42, time + 1001, LoggerLevel.ERROR, "world"),
+                prefix(time + 1001, "ERROR") + "world\n");
+    }
+
+    @Test
+    public void encodeMultipleLines()
+    {
+        final LineEncoder encoder = new LineEncoder(UTF_8, "::", "\n");
+        final long time = 1286208123456L;
+        Assert.assertEquals(encode(encoder, 42, time, LoggerLevel.WARN, "first\n\nsecond\n"), prefix(time, "WARN ")
+                + "first\n" + prefix(time, "WARN ") + "second\n");
+        Assert.assertEquals(encode(encoder, 42, time, LoggerLevel.WARN, ""), "");
+    }
+
+    @Test
+    public void encodeNonAscii()
+    {
+        final LineEncoder encoder = new LineEncoder(UTF_8, "::", "\n");
+        final long time = 1286208123456L;
+        final String message = "caf\u00e9 \ud83d\ude00 ok";
+        Assert.assertEquals(encode(encoder, 42, time, LoggerLevel.DEBUG, message), prefix(time, "DEBUG") + message
+                + "\n");
+    }
+
+    @Test
+    public void encodeContext()
+    {
+        final LineEncoder encoder = new LineEncoder(UTF_8, "::", "\n");
+        final long time = 1286208123456L;
+        final LogEvent event = new LogEvent();
+        event.set(time, LoggerLevel.INFO, "org.example.Test", "first\nsecond");
+        event.context = DiagnosticContext.EMPTY.withValue("request", "12").withValue("user", "a\nb");
+        encoder.encode(42, event);
+        encoder.encodeMessage(event);
+        Assert.assertEquals(new String(encoder.array(), 0, encoder.length(), UTF_8), prefix(time, "INFO ")
+                + "[request=12, user=a b] first\n" + prefix(time, "INFO ") + "[request=12, user=a b] second\n"
+                + "[request=12, user=a b] first\nsecond\n");
+    }
+}
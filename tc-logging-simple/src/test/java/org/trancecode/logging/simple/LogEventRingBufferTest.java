@@ -0,0 +1,118 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LogEventRingBuffer}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LogEventRingBufferTest
+{
+    private static final class CollectingHandler implements LogEventRingBuffer.Handler
+    {
+        private final List<String> messages = new ArrayList<String>();
+        private int batches;
+
+        @Override
+        public void onEvent(final LogEvent event)
+        {
+            messages.add(event.message.toString());
+        }
+
+        @Override
+        public void onEndOfBatch()
+        {
+            batches++;
+        }
+    }
+
+    private static void publish(final LogEventRingBuffer buffer, final long sequence, final String message)
+    {
+        buffer.get(sequence).set(0, LoggerLevel.INFO, "test", message);
+        buffer.publish(sequence);
+    }
+
+    @Test
+    public void drain()
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(4);
+        for (int i = 0; i < 3; i++)
+        {
+            publish(buffer, buffer.next(), "message" + i);
+        }
+        Assert.assertEquals(buffer.size(), 3);
+
+        final CollectingHandler handler = new CollectingHandler();
+        Assert.assertEquals(buffer.drain(handler, 2), 2);
+        Assert.assertEquals(buffer.drain(handler, 2), 1);
+        Assert.assertEquals(buffer.drain(handler, 2), 0);
+        Assert.assertEquals(handler.messages.toString(), "[message0, message1, message2]");
+        Assert.assertEquals(handler.batches, 2);
+        Assert.assertFalse(buffer.hasEvents());
+    }
+
+    @Test
+    public void full()
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(2);
+        publish(buffer, buffer.tryNext(), "a");
+        publish(buffer, buffer.tryNext(), "b");
+        Assert.assertEquals(buffer.tryNext(), -1);
+
+        buffer.drain(new CollectingHandler(), 1);
+        final long sequence = buffer.tryNext();
+        Assert.assertEquals(sequence, 2);
+        publish(buffer, sequence, "c");
+    }
+
+    @Test
+    public void unpublishedSlotStopsDrain()
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(4);
+        final long first = buffer.next();
+        publish(buffer, buffer.next(), "second");
+
+        final CollectingHandler handler = new CollectingHandler();
+        Assert.assertEquals(buffer.drain(handler, 4), 0);
+        publish(buffer, first, "first");
+        Assert.assertEquals(buffer.drain(handler, 4), 2);
+        Assert.assertEquals(handler.messages.toString(), "[first, second]");
+    }
+
+    @Test
+    public void discardOldest()
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(2);
+        Assert.assertFalse(buffer.discardOldest());
+        publish(buffer, buffer.tryNext(), "a");
+        publish(buffer, buffer.tryNext(), "b");
+        Assert.assertTrue(buffer.discardOldest());
+        publish(buffer, buffer.tryNext(), "c");
+
+        final CollectingHandler handler = new CollectingHandler();
+        Assert.assertEquals(buffer.drain(handler, 4), 2);
+        Assert.assertEquals(handler.messages.toString(), "[b, c]");
+    }
+}
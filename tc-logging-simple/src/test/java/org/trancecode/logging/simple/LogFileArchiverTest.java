@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link LogFileArchiver}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LogFileArchiverTest
+{
+    private static File newDirectory() throws IOException
+    {
+        final File directory = File.createTempFile(LogFileArchiverTest.class.getSimpleName(), "");
+        Assert.assertTrue(directory.delete());
+        Assert.assertTrue(directory.mkdir());
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    private static File newLogFile(final File directory, final String id, final int size, final long lastModified)
+            throws IOException
+    {
+        return newLogFile(directory, "test", id, size, lastModified);
+    }
+
+    private static File newLogFile(final File directory, final String prefix, final String id, final int size,
+            final long lastModified) throws IOException
+    {
+        final File file = new File(directory, prefix + ".2010-10-04." + id + ".log");
+        file.deleteOnExit();
+        final OutputStream output = new FileOutputStream(file);
+        try
+        {
+            output.write(new byte[size]);
+        }
+        finally
+        {
+            output.close();
+        }
+        Assert.assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    @Test
+    public void compress() throws IOException
+    {
+        final File file = newLogFile(newDirectory(), "0a", 1000, 1286208000000L);
+        final File compressedFile = LogFileArchiver.compress(file);
+        compressedFile.deleteOnExit();
+        Assert.assertFalse(file.exists());
+        Assert.assertEquals(compressedFile.getName(), file.getName() + ".gz");
+        Assert.assertEquals(compressedFile.lastModified(), 1286208000000L);
+
+        final InputStream input = new GZIPInputStream(new FileInputStream(compressedFile));
+        try
+        {
+            int length = 0;
+            while (input.read() >= 0)
+            {
+                length++;
+            }
+            Assert.assertEquals(length, 1000);
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    @Test
+    public void retentionSize() throws IOException
+    {
+        final File directory = newDirectory();
+        final File oldest = newLogFile(directory, "01", 100, 1286208000000L);
+        final File older = newLogFile(directory, "02", 100, 1286209000000L);
+        final File active = newLogFile(directory, "03", 100, 1286210000000L);
+        final File other = new File(directory, "other.log");
+        Assert.assertTrue(other.createNewFile());
+        other.deleteOnExit();
+
+        // Written by another process sharing the directory
+        final File otherProcessOldest = newLogFile(directory, "1234@host", "01", 1000, 1286200000000L);
+        final File otherProcessActive = newLogFile(directory, "1234@host", "02", 1000, 1286210000000L);
+        final File prefixed = newLogFile(directory, "test.more", "01", 1000, 1286200000000L);
+
+        final LogFileArchiver archiver = new LogFileArchiver(false, 250, 0, System.err);
+        archiver.setActiveFile(active);
+        archiver.applyRetention(directory, "test", 1286210000000L);
+        Assert.assertFalse(oldest.exists());
+        Assert.assertTrue(older.exists());
+        Assert.assertTrue(active.exists());
+        Assert.assertTrue(other.exists());
+        Assert.assertTrue(otherProcessOldest.exists());
+        Assert.assertTrue(otherProcessActive.exists());
+        Assert.assertTrue(prefixed.exists());
+    }
+
+    @Test
+    public void retentionAge() throws IOException
+    {
+        final File directory = newDirectory();
+        final File old = newLogFile(directory, "01", 100, 1286208000000L);
+        final File recent = newLogFile(directory, "02", 100, 1286209000000L);
+
+        final File otherProcessOld = newLogFile(directory, "1234@host", "01", 100, 1286208000000L);
+
+        new LogFileArchiver(false, 0, 1500000, System.err).applyRetention(directory, "test", 1286210000000L);
+        Assert.assertFalse(old.exists());
+        Assert.assertTrue(recent.exists());
+        Assert.assertTrue(otherProcessOld.exists());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link LogFileReader}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class LogFileReaderTest
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final long START_TIME = 1286208000000L;
+
+    /**
+     * Writes events 1 to 1000, 10 ms apart, with every tenth event on two
+     * lines.
+     */
+    private static File writeLogFile(final boolean indexed, final int zeroTail) throws IOException
+    {
+        final File file = File.createTempFile(LogFileReaderTest.class.getSimpleName(), ".log");
+        file.deleteOnExit();
+        LogFileIndex.getIndexFile(file).deleteOnExit();
+
+        final FileAppender appender = new ChannelFileAppender(file, 4096);
+        final LogFileIndex index = indexed ? new LogFileIndex(file) : null;
+        final LineEncoder encoder = new LineEncoder(UTF_8, "::", "\n");
+        final LogEvent event = new LogEvent();
+        long size = 0;
+        long lastIndexedOffset = -256;
+        for (int eventId = 1; eventId <= 1000; eventId++)
+        {
+            final long time = START_TIME + eventId * 10;
+            event.set(time, LoggerLevel.INFO, "org.example.Test", "event " + eventId
+                    + (eventId % 10 == 0 ? "\nsecond line" : ""));
+            encoder.reset();
+            encoder.encode(eventId, event);
+            if (index != null && size - lastIndexedOffset >= 256)
+            {
+                index.add(size, time, eventId);
+                lastIndexedOffset = size;
+            }
+            appender.write(encoder.array(), 0, encoder.length());
+            size += encoder.length();
+        }
+        appender.write(new byte[zeroTail], 0, zeroTail);
+        appender.close();
+        if (index != null)
+        {
+            index.close();
+        }
+
+        return file;
+    }
+
+    @Test
+    public void next() throws IOException
+    {
+        final LogFileReader reader = new LogFileReader(writeLogFile(false, 0), UTF_8);
+        try
+        {
+            final LogEntry first = reader.next();
+            Assert.assertEquals(first.eventId(), 1);
+            Assert.assertEquals(first.level(), LoggerLevel.INFO);
+            Assert.assertEquals(first.time(), START_TIME + 10);
+            Assert.assertEquals(first.loggerName(), "org.example.Test");
+            Assert.assertEquals(first.message(), "event 1");
+
+            int count = 1;
+            while (reader.next() != null)
+            {
+                count++;
+            }
+            Assert.assertEquals(count, 1100);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void seekToTime() throws IOException
+    {
+        for (final boolean indexed : new boolean[] { true, false })
+        {
+            final LogFileReader reader = new LogFileReader(writeLogFile(indexed, 100), UTF_8);
+            try
+            {
+                reader.seekToTime(START_TIME + 5005);
+                Assert.assertEquals(reader.next().message(), "event 501");
+                reader.seekToTime(START_TIME + 100);
+                Assert.assertEquals(reader.next().message(), "event 10");
+                Assert.assertEquals(reader.next().message(), "second line");
+                reader.seekToTime(START_TIME + 20000);
+                Assert.assertNull(reader.next());
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    public void seekToEventId() throws IOException
+    {
+        final LogFileReader reader = new LogFileReader(writeLogFile(true, 0), UTF_8);
+        try
+        {
+            reader.seekToEventId(990);
+            Assert.assertEquals(reader.next().message(), "event 990");
+            Assert.assertEquals(reader.next().message(), "second line");
+            Assert.assertEquals(reader.next().eventId(), 991);
+            reader.seekToEventId(1);
+            Assert.assertEquals(reader.position(), 0);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+}
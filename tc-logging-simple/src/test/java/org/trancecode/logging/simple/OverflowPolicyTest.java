@@ -0,0 +1,161 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link OverflowPolicy}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class OverflowPolicyTest
+{
+    private static LogEventRingBuffer fullBuffer()
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(2);
+        for (int i = 0; i < 2; i++)
+        {
+            final long sequence = buffer.tryNext();
+            buffer.get(sequence).set(0, LoggerLevel.INFO, "test", "message" + i);
+            buffer.publish(sequence);
+        }
+        return buffer;
+    }
+
+    @Test
+    public void dropNewest()
+    {
+        final AtomicLong droppedEvents = new AtomicLong();
+        Assert.assertEquals(OverflowPolicy.DROP_NEWEST.claim(fullBuffer(), LoggerLevel.FATAL, LoggerLevel.WARN,
+                droppedEvents), -1);
+        Assert.assertEquals(droppedEvents.get(), 1);
+    }
+
+    @Test
+    public void dropOldest()
+    {
+        final AtomicLong droppedEvents = new AtomicLong();
+        final LogEventRingBuffer buffer = fullBuffer();
+        Assert.assertEquals(OverflowPolicy.DROP_OLDEST.claim(buffer, LoggerLevel.INFO, LoggerLevel.WARN,
+                droppedEvents), 2);
+        Assert.assertEquals(droppedEvents.get(), 1);
+    }
+
+    @Test
+    public void dropOldestWhileWriting() throws Exception
+    {
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(8);
+        for (int i = 0; i < 8; i++)
+        {
+            final long sequence = buffer.tryNext();
+            buffer.get(sequence).set(0, LoggerLevel.INFO, "test", "message" + i);
+            buffer.publish(sequence);
+        }
+
+        // The output thread is held while writing the oldest event
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+        final Thread consumer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                buffer.drain(new LogEventRingBuffer.Handler()
+                {
+                    @Override
+                    public void onEvent(final LogEvent event)
+                    {
+                        writing.countDown();
+                        try
+                        {
+                            written.await();
+                        }
+                        catch (final InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public void onEndOfBatch()
+                    {
+                        // Nothing to flush
+                    }
+                }, 1);
+            }
+        };
+        consumer.start();
+        writing.await();
+
+        final AtomicLong droppedEvents = new AtomicLong();
+        final AtomicLong claimedSequence = new AtomicLong(-1);
+        final Thread producer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                claimedSequence.set(OverflowPolicy.DROP_OLDEST.claim(buffer, LoggerLevel.INFO, LoggerLevel.WARN,
+                        droppedEvents));
+            }
+        };
+        producer.start();
+        Thread.sleep(100);
+        Assert.assertEquals(droppedEvents.get(), 1);
+        Assert.assertEquals(claimedSequence.get(), -1);
+
+        written.countDown();
+        producer.join(5000);
+        consumer.join(5000);
+        Assert.assertEquals(claimedSequence.get(), 8);
+        Assert.assertEquals(droppedEvents.get(), 1);
+        Assert.assertEquals(buffer.size(), 7);
+    }
+
+    @Test
+    public void dropBelowLevel()
+    {
+        final AtomicLong droppedEvents = new AtomicLong();
+        Assert.assertEquals(OverflowPolicy.DROP_BELOW_LEVEL.claim(fullBuffer(), LoggerLevel.INFO, LoggerLevel.WARN,
+                droppedEvents), -1);
+        Assert.assertEquals(droppedEvents.get(), 1);
+
+        final LogEventRingBuffer buffer = new LogEventRingBuffer(2);
+        Assert.assertEquals(OverflowPolicy.DROP_BELOW_LEVEL.claim(buffer, LoggerLevel.WARN, LoggerLevel.WARN,
+                droppedEvents), 0);
+        Assert.assertEquals(droppedEvents.get(), 1);
+    }
+
+    @Test
+    public void closedBuffer()
+    {
+        for (final OverflowPolicy policy : OverflowPolicy.values())
+        {
+            final AtomicLong droppedEvents = new AtomicLong();
+            final LogEventRingBuffer buffer = fullBuffer();
+            buffer.close();
+            Assert.assertEquals(policy.claim(buffer, LoggerLevel.INFO, LoggerLevel.INFO, droppedEvents), -1,
+                    policy.toString());
+            Assert.assertEquals(droppedEvents.get(), 0, policy.toString());
+        }
+    }
+}
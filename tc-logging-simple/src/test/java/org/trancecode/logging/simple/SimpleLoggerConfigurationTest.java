@@ -0,0 +1,66 @@
+/*
+ * Copyright 2010 Herve Quiroz
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.trancecode.logging.simple;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.trancecode.logging.spi.LoggerLevel;
+
+/**
+ * Tests for {@link SimpleLoggerConfiguration}.
+ * 
+ * @author Herve Quiroz
+ */
+@Test
+public final class SimpleLoggerConfigurationTest
+{
+    private static SimpleLoggerConfiguration newConfiguration(final File outputDirectory)
+    {
+        return new SimpleLoggerConfiguration(new LevelHierarchy(LoggerLevel.INFO, new HashMap<String, LoggerLevel>()),
+                LoggerLevel.TRACE, System.err, Charset.defaultCharset(), outputDirectory, "test", OverflowPolicy.BLOCK,
+                LoggerLevel.WARN);
+    }
+
+    @Test
+    public void with()
+    {
+        final SimpleLoggerConfiguration configuration = newConfiguration(null);
+        final SimpleLoggerConfiguration newConfiguration = configuration.withConsoleLevel(LoggerLevel.ERROR);
+        Assert.assertNotSame(newConfiguration, configuration);
+        Assert.assertEquals(configuration.consoleLevel(), LoggerLevel.TRACE);
+        Assert.assertEquals(newConfiguration.consoleLevel(), LoggerLevel.ERROR);
+        Assert.assertSame(newConfiguration.levels(), configuration.levels());
+        Assert.assertEquals(newConfiguration.logFileNamePrefix(), "test");
+        Assert.assertEquals(newConfiguration.overflowPolicy(), OverflowPolicy.BLOCK);
+        Assert.assertEquals(newConfiguration.overflowLevel(), LoggerLevel.WARN);
+    }
+
+    @Test
+    public void hasSameLogFiles()
+    {
+        final SimpleLoggerConfiguration configuration = newConfiguration(new File("a"));
+        Assert.assertTrue(configuration.hasSameLogFiles(configuration.withConsoleLevel(LoggerLevel.ERROR)));
+        Assert.assertTrue(configuration.hasSameLogFiles(configuration.withOutputDirectory(new File("a"))));
+        Assert.assertFalse(configuration.hasSameLogFiles(configuration.withOutputDirectory(new File("b"))));
+        Assert.assertFalse(configuration.hasSameLogFiles(configuration.withOutputDirectory(null)));
+        Assert.assertFalse(configuration.hasSameLogFiles(configuration.withLogFileNamePrefix("other")));
+        Assert.assertTrue(newConfiguration(null).hasSameLogFiles(newConfiguration(null)));
+    }
+}
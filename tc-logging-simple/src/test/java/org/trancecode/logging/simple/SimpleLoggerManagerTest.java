@@ -15,11 +15,25 @@
  */
 package org.trancecode.logging.simple;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.trancecode.base.Supplier;
+import org.trancecode.logging.LevelOverride;
 import org.trancecode.logging.Logger;
+import org.trancecode.logging.spi.DelegateLogger;
+import org.trancecode.logging.spi.LoggerLevel;
 import org.trancecode.logging.spi.LoggerManager;
 import org.trancecode.logging.util.Duration;
 
@@ -45,6 +59,16 @@ public final class SimpleLoggerManagerTest
         Logger.getLogger(SimpleLoggerManagerTest.class);
     }
 
+    @Test
+    public void getLoggerReturnsSameInstance()
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        Assert.assertSame(Logger.getLogger(SimpleLoggerManagerTest.class), logger);
+        Assert.assertSame(Logger.getLogger(SimpleLoggerManagerTest.class.getName()), logger);
+        Assert.assertSame(logger.getChildLogger("child"), logger.getChildLogger("child"));
+        Assert.assertSame(logger.getChildLogger("child"), Logger.getLogger(logger.name() + ".child"));
+    }
+
     @Test
     public void log()
     {
@@ -57,6 +81,92 @@ public final class SimpleLoggerManagerTest
         logger.fatal("fatal {}", 123);
     }
 
+    /**
+     * Runs the specified logging code with the console redirected and returns
+     * the lines written to the console once the last one has been written.
+     */
+    private static List<String> consoleLines(final Runnable logging, final String lastLine) throws Exception
+    {
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        SimpleLoggerManager.setDestination(new PrintStream(console, true));
+        try
+        {
+            logging.run();
+
+            // Console output is written by the output thread
+            final long timeout = System.currentTimeMillis() + 5000;
+            List<String> lines = Arrays.asList(console.toString().split("\\r?\\n"));
+            while (!lines.contains(lastLine) && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(10);
+                lines = Arrays.asList(console.toString().split("\\r?\\n"));
+            }
+            return lines;
+        }
+        finally
+        {
+            SimpleLoggerManager.setDestination(System.err);
+        }
+    }
+
+    @Test
+    public void logFixedArguments() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final List<String> lines = consoleLines(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                logger.info("none");
+                logger.info("one {}", "a");
+                logger.info("two {} {}", "a", "b");
+                logger.info("three {} {} {}", "a", "b", "c");
+                logger.info("four {} {} {} {}", "a", "b", "c", "d");
+                logger.info("five {} {} {} {} {}", "a", "b", "c", "d", "e");
+            }
+        }, "five a b c d e");
+        Assert.assertTrue(lines.containsAll(Arrays.asList("none", "one a", "two a b", "three a b c", "four a b c d",
+                "five a b c d e")), lines.toString());
+    }
+
+    @Test
+    public void logPrimitiveArguments() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final List<String> lines = consoleLines(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                logger.info("int {}", 1);
+                logger.info("long {}", 2L);
+                logger.info("float {}", 3.5f);
+                logger.info("double {}", 4.5d);
+                logger.info("char {}", 'c');
+                logger.info("boolean {}", true);
+                logger.info("int {class.simpleName}", 1);
+            }
+        }, "int Integer");
+        Assert.assertTrue(lines.containsAll(Arrays.asList("int 1", "long 2", "float 3.5", "double 4.5", "char c",
+                "boolean true", "int Integer")), lines.toString());
+    }
+
+    @Test
+    public void logEscapedBrace() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final List<String> lines = consoleLines(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                logger.info("brace: \\{");
+            }
+        }, "brace: {");
+        Assert.assertTrue(lines.contains("brace: {"), lines.toString());
+    }
+
     @Test
     public void logMethodMacro()
     {
@@ -111,4 +221,235 @@ public final class SimpleLoggerManagerTest
         final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
         logger.info("one\n two\n  three");
     }
+
+    @Test
+    public void consoleLevel() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        SimpleLoggerManager.setDestination(new PrintStream(console, true));
+        SimpleLoggerManager.setConsoleLevel(LoggerLevel.WARN);
+        try
+        {
+            logger.info("console info");
+            logger.warn("console warn");
+
+            // Console output is written by the output thread
+            final long timeout = System.currentTimeMillis() + 5000;
+            while (!console.toString().contains("console warn") && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(console.toString().contains("console warn"), console.toString());
+            Assert.assertFalse(console.toString().contains("console info"), console.toString());
+        }
+        finally
+        {
+            SimpleLoggerManager.setConsoleLevel(LoggerLevel.TRACE);
+            SimpleLoggerManager.setDestination(System.err);
+        }
+    }
+
+    @Test
+    public void consoleCharset() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final Charset charset = Charset.forName("UTF-16BE");
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        SimpleLoggerManager.setDestination(new PrintStream(console, true, charset.name()), charset);
+        try
+        {
+            logger.warn("console \u00e9\u4e2d");
+
+            final long timeout = System.currentTimeMillis() + 5000;
+            while (!new String(console.toByteArray(), charset).contains("console \u00e9\u4e2d")
+                    && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(new String(console.toByteArray(), charset).contains("console \u00e9\u4e2d"));
+        }
+        finally
+        {
+            SimpleLoggerManager.setDestination(System.err);
+        }
+    }
+
+    @Test
+    public void loggerLevels()
+    {
+        final LoggerManager loggerManager = LoggerManager.getLoggerManager();
+        final DelegateLogger parent = loggerManager.getDelegateLogger("test.levels");
+        final DelegateLogger child = loggerManager.getDelegateLogger("test.levels.child");
+        final DelegateLogger other = loggerManager.getDelegateLogger("test.levelsother");
+        SimpleLoggerManager.setLevel("test.levels", LoggerLevel.DEBUG);
+        SimpleLoggerManager.setLevel("test.levels.child", LoggerLevel.WARN);
+        try
+        {
+            Assert.assertTrue(parent.isLevelEnabled(LoggerLevel.DEBUG));
+            Assert.assertFalse(parent.isLevelEnabled(LoggerLevel.TRACE));
+            Assert.assertFalse(child.isLevelEnabled(LoggerLevel.INFO));
+            Assert.assertTrue(child.isLevelEnabled(LoggerLevel.WARN));
+            Assert.assertFalse(other.isLevelEnabled(LoggerLevel.DEBUG));
+            Assert.assertEquals(SimpleLoggerManager.getLevel("test.levels.child.grandchild"), LoggerLevel.WARN);
+
+            SimpleLoggerManager.setLevel("test.levels.child", null);
+            Assert.assertTrue(child.isLevelEnabled(LoggerLevel.DEBUG));
+        }
+        finally
+        {
+            SimpleLoggerManager.setLevel("test.levels", null);
+            SimpleLoggerManager.setLevel("test.levels.child", null);
+        }
+        Assert.assertFalse(parent.isLevelEnabled(LoggerLevel.DEBUG));
+    }
+
+    @Test
+    public void levelGuardsAndSuppliers()
+    {
+        final Logger logger = Logger.getLogger("test.suppliers");
+        final int[] calls = new int[1];
+        final Supplier<String> supplier = new Supplier<String>()
+        {
+            @Override
+            public String get()
+            {
+                calls[0]++;
+                return "supplied";
+            }
+        };
+        SimpleLoggerManager.setLevel("test.suppliers", LoggerLevel.INFO);
+        try
+        {
+            Assert.assertTrue(logger.isInfoEnabled());
+            Assert.assertTrue(logger.isEnabled(LoggerLevel.WARN));
+            Assert.assertFalse(logger.isDebugEnabled());
+            Assert.assertFalse(logger.isEnabled(LoggerLevel.TRACE));
+
+            logger.debug("disabled: {}", supplier);
+            logger.info("not rendered", supplier);
+            Assert.assertEquals(calls[0], 0);
+            logger.info("enabled: {}", supplier);
+            Assert.assertEquals(calls[0], 1);
+        }
+        finally
+        {
+            SimpleLoggerManager.setLevel("test.suppliers", null);
+        }
+    }
+
+    @Test
+    public void cachedLevels()
+    {
+        Assert.assertTrue(LoggerManager.getLoggerManager().isLevelCachingSupported());
+        final Logger logger = Logger.getLogger("test.cached");
+        Assert.assertFalse(logger.isDebugEnabled());
+        Assert.assertFalse(logger.isDebugEnabled());
+
+        final int generation = LoggerManager.levelsGeneration();
+        SimpleLoggerManager.setLevel("test", LoggerLevel.DEBUG);
+        try
+        {
+            Assert.assertTrue(LoggerManager.levelsGeneration() != generation);
+            Assert.assertTrue(logger.isDebugEnabled());
+            Assert.assertFalse(logger.isTraceEnabled());
+        }
+        finally
+        {
+            SimpleLoggerManager.setLevel("test", null);
+        }
+        Assert.assertFalse(logger.isDebugEnabled());
+    }
+
+    @Test
+    public void levelOverride() throws Exception
+    {
+        final Logger logger = Logger.getLogger("test.override");
+        Assert.assertFalse(logger.isDebugEnabled());
+
+        final boolean[] enabledInOtherThread = new boolean[1];
+        final LevelOverride override = LevelOverride.set(LoggerLevel.DEBUG);
+        try
+        {
+            Assert.assertTrue(logger.isDebugEnabled());
+            Assert.assertFalse(logger.isTraceEnabled());
+            logger.debug("debug enabled for this thread");
+
+            final Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    enabledInOtherThread[0] = logger.isDebugEnabled();
+                }
+            };
+            thread.start();
+            thread.join();
+            Assert.assertFalse(enabledInOtherThread[0]);
+        }
+        finally
+        {
+            override.restore();
+        }
+        Assert.assertFalse(logger.isDebugEnabled());
+    }
+
+    @Test
+    public void setOutputDirectory() throws Exception
+    {
+        final Logger logger = Logger.getLogger(SimpleLoggerManagerTest.class);
+        final File outputDirectory = new File(System.getProperty("java.io.tmpdir"), "tc-logging-" + System.nanoTime());
+        SimpleLoggerManager.setOutputDirectory(outputDirectory);
+        try
+        {
+            // The output thread switches to the new directory between batches,
+            // so that the first events may still go to the previous directory
+            final long timeout = System.currentTimeMillis() + 5000;
+            while (outputDirectory.list().length == 0 && System.currentTimeMillis() < timeout)
+            {
+                logger.info("new output directory");
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(outputDirectory.list().length > 0);
+        }
+        finally
+        {
+            SimpleLoggerManager.setOutputDirectory(new File(System.getProperty(
+                    SimpleLoggerManager.PROPERTY_OUTPUT_DIRECTORY, System.getProperty("java.io.tmpdir"))));
+        }
+    }
+
+    @Test
+    public void metrics() throws Exception
+    {
+        final SimpleLoggerMetricsMXBean metrics = SimpleLoggerManager.getMetrics();
+        metrics.setLoggerEventCountsEnabled(true);
+        try
+        {
+            final Logger logger = Logger.getLogger("test.metrics");
+            logger.error("metrics");
+
+            // Events are counted by the output thread
+            final long timeout = System.currentTimeMillis() + 5000;
+            while (!metrics.getLoggerEventCounts().containsKey("test.metrics") && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(metrics.getLoggerEventCounts().get("test.metrics"), Long.valueOf(1));
+            Assert.assertTrue(metrics.getEventCounts().get(LoggerLevel.ERROR.name()) > 0);
+            Assert.assertTrue(metrics.getConsoleBytesWritten() > 0);
+            Assert.assertTrue(metrics.getQueueHighWaterMark() <= metrics.getQueueCapacity());
+            Assert.assertEquals(metrics.getSuppressedEventCount(), -1);
+
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(SimpleLoggerManager.METRICS_OBJECT_NAME);
+            Assert.assertEquals(server.getAttribute(name, "DroppedEventCount"), SimpleLoggerManager
+                    .getDroppedEventCount());
+            Assert.assertEquals(server.getAttribute(name, "LoggerEventCountsEnabled"), Boolean.TRUE);
+        }
+        finally
+        {
+            metrics.setLoggerEventCountsEnabled(false);
+        }
+    }
 }